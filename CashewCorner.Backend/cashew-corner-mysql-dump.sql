@@ -20,6 +20,13 @@ SET FOREIGN_KEY_CHECKS = 0;
 -- ============================================================================
 -- DROP EXISTING TABLES (in reverse dependency order)
 -- ============================================================================
+DROP TABLE IF EXISTS `stock_movements_archive`;
+DROP TABLE IF EXISTS `stock_reservations`;
+DROP TABLE IF EXISTS `id_generators`;
+DROP TABLE IF EXISTS `document_sequences`;
+DROP TABLE IF EXISTS `refresh_tokens`;
+DROP TABLE IF EXISTS `revoked_tokens`;
+DROP TABLE IF EXISTS `monthly_product_rollups`;
 DROP TABLE IF EXISTS `reports`;
 DROP TABLE IF EXISTS `payrolls`;
 DROP TABLE IF EXISTS `employee_duties`;
@@ -179,6 +186,7 @@ CREATE TABLE `inventory` (
     `reserved_quantity` DECIMAL(18,4) NOT NULL DEFAULT 0.0000,
     `last_updated` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     PRIMARY KEY (`inventory_id`),
+    UNIQUE KEY `uk_inventory_product_location` (`product_id`, `location`),
     KEY `fk_inventory_product` (`product_id`),
     CONSTRAINT `fk_inventory_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -199,7 +207,9 @@ CREATE TABLE `stock_movements` (
     `created_by` BIGINT DEFAULT NULL,
     `notes` TEXT DEFAULT NULL,
     PRIMARY KEY (`movement_id`),
-    KEY `fk_stock_movements_product` (`product_id`),
+    KEY `idx_stock_movements_product_date` (`product_id`, `movement_date`),
+    KEY `idx_stock_movements_type_date` (`movement_type`, `movement_date`),
+    KEY `idx_stock_movements_date` (`movement_date`),
     CONSTRAINT `fk_stock_movements_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -223,6 +233,7 @@ CREATE TABLE `purchase_orders` (
     PRIMARY KEY (`purchase_order_id`),
     UNIQUE KEY `uk_purchase_orders_po_number` (`po_number`),
     KEY `fk_purchase_orders_supplier` (`supplier_id`),
+    KEY `idx_purchase_orders_created_active` (`created_at`, `is_active`),
     CONSTRAINT `fk_purchase_orders_supplier` FOREIGN KEY (`supplier_id`) REFERENCES `suppliers` (`supplier_id`) ON DELETE RESTRICT ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -266,6 +277,7 @@ CREATE TABLE `sales_orders` (
     PRIMARY KEY (`sales_order_id`),
     UNIQUE KEY `uk_sales_orders_so_number` (`so_number`),
     KEY `fk_sales_orders_customer` (`customer_id`),
+    KEY `idx_sales_orders_created_active` (`created_at`, `is_active`),
     CONSTRAINT `fk_sales_orders_customer` FOREIGN KEY (`customer_id`) REFERENCES `customers` (`customer_id`) ON DELETE RESTRICT ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -370,11 +382,145 @@ CREATE TABLE `reports` (
     `generated_by` BIGINT DEFAULT NULL,
     `generated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     `file_path` VARCHAR(500) DEFAULT NULL,
+    `status` VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    `completed_at` DATETIME DEFAULT NULL,
+    `error_message` VARCHAR(1000) DEFAULT NULL,
     PRIMARY KEY (`report_id`),
     KEY `fk_reports_user` (`generated_by`),
+    KEY `idx_reports_status` (`status`),
     CONSTRAINT `fk_reports_user` FOREIGN KEY (`generated_by`) REFERENCES `users` (`user_id`) ON DELETE SET NULL ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================================================
+-- TABLE: monthly_product_rollups
+-- Description: Monthly sales/purchase totals per product, kept up to date on
+--              order creation and rebuildable per year from the order items
+-- ============================================================================
+CREATE TABLE `monthly_product_rollups` (
+    `rollup_id` BIGINT NOT NULL AUTO_INCREMENT,
+    `rollup_type` VARCHAR(20) NOT NULL,
+    `product_id` BIGINT NOT NULL,
+    `rollup_year` INT NOT NULL,
+    `rollup_month` INT NOT NULL,
+    `total_quantity` DECIMAL(20,4) NOT NULL DEFAULT 0.0000,
+    `total_value` DECIMAL(24,6) NOT NULL DEFAULT 0.000000,
+    `min_unit_price` DECIMAL(15,2) DEFAULT NULL,
+    `max_unit_price` DECIMAL(15,2) DEFAULT NULL,
+    `price_sum` DECIMAL(20,2) NOT NULL DEFAULT 0.00,
+    `line_count` BIGINT NOT NULL DEFAULT 0,
+    `order_count` BIGINT NOT NULL DEFAULT 0,
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`rollup_id`),
+    UNIQUE KEY `uk_mpr_type_product_period` (`rollup_type`, `product_id`, `rollup_year`, `rollup_month`),
+    KEY `idx_mpr_type_year` (`rollup_type`, `rollup_year`),
+    KEY `fk_mpr_product` (`product_id`),
+    CONSTRAINT `fk_mpr_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- TABLE: revoked_tokens
+-- Description: JWTs revoked by logout, keyed by jti and shared by all backend
+--              nodes; rows can be purged once expires_at has passed
+-- ============================================================================
+CREATE TABLE `revoked_tokens` (
+    `token_id` VARCHAR(64) NOT NULL,
+    `expires_at` DATETIME NOT NULL,
+    `revoked_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`token_id`),
+    KEY `idx_revoked_tokens_expires` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- TABLE: refresh_tokens
+-- Description: Issued refresh tokens (by jti), grouped into one rotation family
+--              per login; reuse of a used token revokes the whole family
+-- ============================================================================
+CREATE TABLE `refresh_tokens` (
+    `token_id` VARCHAR(64) NOT NULL,
+    `family_id` VARCHAR(64) NOT NULL,
+    `user_id` BIGINT NOT NULL,
+    `issued_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `expires_at` DATETIME NOT NULL,
+    `used_at` DATETIME DEFAULT NULL,
+    `revoked` TINYINT(1) NOT NULL DEFAULT 0,
+    PRIMARY KEY (`token_id`),
+    KEY `idx_refresh_tokens_family` (`family_id`),
+    KEY `idx_refresh_tokens_expires` (`expires_at`),
+    KEY `fk_refresh_tokens_user` (`user_id`),
+    CONSTRAINT `fk_refresh_tokens_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- TABLE: document_sequences
+-- Description: Next SO/PO number per prefix and year; application nodes
+--              reserve numbers from it in blocks
+-- ============================================================================
+CREATE TABLE `document_sequences` (
+    `prefix` VARCHAR(10) NOT NULL,
+    `seq_year` INT NOT NULL,
+    `next_value` BIGINT NOT NULL,
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`prefix`, `seq_year`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- TABLE: id_generators
+-- Description: Pooled id blocks (Hibernate table generator, allocation 50) for
+--              sales_orders, sales_order_items, purchase_orders,
+--              purchase_order_items and stock_movements, so their inserts can
+--              be JDBC-batched; each row must start above MAX(id) + 50
+-- ============================================================================
+CREATE TABLE `id_generators` (
+    `generator_name` VARCHAR(64) NOT NULL,
+    `next_value` BIGINT NOT NULL,
+    PRIMARY KEY (`generator_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- TABLE: stock_reservations
+-- Description: Stock held for sales orders per inventory location; counted in
+--              inventory.reserved_quantity while status is RESERVED
+-- ============================================================================
+CREATE TABLE `stock_reservations` (
+    `reservation_id` BIGINT NOT NULL AUTO_INCREMENT,
+    `sales_order_id` BIGINT NOT NULL,
+    `inventory_id` BIGINT NOT NULL,
+    `product_id` BIGINT NOT NULL,
+    `quantity` DECIMAL(18,4) NOT NULL,
+    `status` VARCHAR(20) NOT NULL DEFAULT 'RESERVED',
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`reservation_id`),
+    KEY `idx_sr_sales_order_status` (`sales_order_id`, `status`),
+    KEY `idx_sr_inventory` (`inventory_id`),
+    KEY `fk_sr_product` (`product_id`),
+    CONSTRAINT `fk_sr_sales_order` FOREIGN KEY (`sales_order_id`) REFERENCES `sales_orders` (`sales_order_id`) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT `fk_sr_inventory` FOREIGN KEY (`inventory_id`) REFERENCES `inventory` (`inventory_id`) ON DELETE RESTRICT ON UPDATE CASCADE,
+    CONSTRAINT `fk_sr_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`product_id`) ON DELETE RESTRICT ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================================================
+-- TABLE: stock_movements_archive
+-- Description: Stock movements older than the retention period, moved out of
+--              stock_movements in batches; no foreign keys so history survives
+-- ============================================================================
+CREATE TABLE `stock_movements_archive` (
+    `movement_id` BIGINT NOT NULL,
+    `product_id` BIGINT NOT NULL,
+    `movement_type` VARCHAR(50) NOT NULL,
+    `related_type` VARCHAR(50) DEFAULT NULL,
+    `related_id` BIGINT DEFAULT NULL,
+    `quantity` DECIMAL(18,4) NOT NULL,
+    `balance_after` DECIMAL(18,4) DEFAULT NULL,
+    `movement_date` DATETIME NOT NULL,
+    `created_by` BIGINT DEFAULT NULL,
+    `notes` TEXT DEFAULT NULL,
+    `archived_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`movement_id`),
+    KEY `idx_sma_product_date` (`product_id`, `movement_date`),
+    KEY `idx_sma_date` (`movement_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Re-enable foreign key checks
 SET FOREIGN_KEY_CHECKS = 1;
 
@@ -449,6 +595,25 @@ INSERT INTO `inventory` (`product_id`, `location`, `quantity_on_hand`, `reserved
 (2, 'Warehouse A', 200.0000, 20.0000, NOW()),
 (3, 'Warehouse B', 150.0000, 15.0000, NOW());
 
+-- ----------------------------------------------------------------------------
+-- Seed id generators above the current ids (safe to re-run on an existing database)
+-- ----------------------------------------------------------------------------
+INSERT INTO `id_generators` (`generator_name`, `next_value`)
+SELECT 'sales_orders', COALESCE(MAX(`sales_order_id`), 0) + 51 FROM `sales_orders`
+ON DUPLICATE KEY UPDATE `next_value` = GREATEST(`next_value`, VALUES(`next_value`));
+INSERT INTO `id_generators` (`generator_name`, `next_value`)
+SELECT 'sales_order_items', COALESCE(MAX(`sales_order_item_id`), 0) + 51 FROM `sales_order_items`
+ON DUPLICATE KEY UPDATE `next_value` = GREATEST(`next_value`, VALUES(`next_value`));
+INSERT INTO `id_generators` (`generator_name`, `next_value`)
+SELECT 'purchase_orders', COALESCE(MAX(`purchase_order_id`), 0) + 51 FROM `purchase_orders`
+ON DUPLICATE KEY UPDATE `next_value` = GREATEST(`next_value`, VALUES(`next_value`));
+INSERT INTO `id_generators` (`generator_name`, `next_value`)
+SELECT 'purchase_order_items', COALESCE(MAX(`purchase_order_item_id`), 0) + 51 FROM `purchase_order_items`
+ON DUPLICATE KEY UPDATE `next_value` = GREATEST(`next_value`, VALUES(`next_value`));
+INSERT INTO `id_generators` (`generator_name`, `next_value`)
+SELECT 'stock_movements', COALESCE(MAX(`movement_id`), 0) + 51 FROM `stock_movements`
+ON DUPLICATE KEY UPDATE `next_value` = GREATEST(`next_value`, VALUES(`next_value`));
+
 -- ============================================================================
 -- END OF DUMP
 -- ============================================================================
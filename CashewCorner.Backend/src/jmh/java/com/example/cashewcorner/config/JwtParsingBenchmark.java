@@ -0,0 +1,89 @@
+package com.example.cashewcorner.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in the JWT filter.
+ * <ul>
+ *   <li>parseOnce: the current path, one verification through the shared parser and
+ *       every claim read from its result</li>
+ *   <li>parsePerClaim: the earlier filter path, which verified the token again for the
+ *       username, the user id and the validity check</li>
+ *   <li>parserPerCall: one verification, but with a parser and key built per call as
+ *       JwtUtil used to</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-512-signatures";
+    private static final String USERNAME = "benchmark-user";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtil = new JwtUtil();
+        setField("jwtSecret", SECRET);
+        setField("jwtExpiration", 3_600_000L);
+        setField("refreshTokenExpiration", 604_800_000L);
+        jwtUtil.init();
+        token = jwtUtil.generateAccessToken(USERNAME, 42L);
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        Claims claims = jwtUtil.parseClaims(token);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.get("userId", Long.class));
+        blackhole.consume(claims.getExpiration().before(new Date()));
+        blackhole.consume(jwtUtil.tokenId(claims, token));
+    }
+
+    @Benchmark
+    public void parsePerClaim(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.extractUsername(token));
+        blackhole.consume(jwtUtil.extractUserId(token));
+        blackhole.consume(jwtUtil.validateToken(token, USERNAME));
+        blackhole.consume(jwtUtil.tokenId(jwtUtil.parseClaims(token), token));
+    }
+
+    @Benchmark
+    public void parserPerCall(Blackhole blackhole) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.get("userId", Long.class));
+        blackhole.consume(claims.getExpiration().before(new Date()));
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtil, value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.repository.projection.ProductCategoryPairProjection;
+import com.example.cashewcorner.repository.projection.ProductMonthlyTotalProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the category report aggregation as categories and products grow.
+ * Every product belongs to two categories and has a row for each month, so the work
+ * should grow with the number of rows and stay flat as categories are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryAggregationEngineBenchmark {
+
+    private static final int MONTHS = 12;
+
+    @Param({"10", "100", "1000"})
+    private int categories;
+
+    @Param({"1000", "10000"})
+    private int products;
+
+    private List<ProductCategoryPairProjection> mappings;
+    private List<ProductMonthlyTotalProjection> rows;
+    private CategoryAggregationEngine engine;
+
+    @Setup
+    public void setUp() {
+        mappings = new ArrayList<>(products * 2);
+        rows = new ArrayList<>(products * MONTHS);
+        for (long productId = 1; productId <= products; productId++) {
+            mappings.add(new Mapping(productId, productId % categories));
+            mappings.add(new Mapping(productId, (productId * 7 + 1) % categories));
+            for (int month = 1; month <= MONTHS; month++) {
+                rows.add(new Row(productId, month, BigDecimal.valueOf(month), BigDecimal.valueOf(productId)));
+            }
+        }
+        engine = CategoryAggregationEngine.fromMappings(mappings);
+    }
+
+    @Benchmark
+    public CategoryAggregationEngine buildEngine() {
+        return CategoryAggregationEngine.fromMappings(mappings);
+    }
+
+    @Benchmark
+    public Map<Long, Map<Integer, CategoryAggregationEngine.Totals>> aggregateByCategoryAndMonth() {
+        return engine.aggregateByCategoryAndMonth(rows);
+    }
+
+    @Benchmark
+    public Map<Long, CategoryAggregationEngine.Totals> aggregateByCategory() {
+        return engine.aggregateByCategory(rows);
+    }
+
+    private record Mapping(Long productId, Long categoryId) implements ProductCategoryPairProjection {
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+    }
+
+    private record Row(Long productId, Integer orderMonth, BigDecimal totalQuantity, BigDecimal totalValue)
+            implements ProductMonthlyTotalProjection {
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+
+        @Override
+        public Integer getOrderMonth() {
+            return orderMonth;
+        }
+
+        @Override
+        public BigDecimal getTotalQuantity() {
+            return totalQuantity;
+        }
+
+        @Override
+        public BigDecimal getTotalValue() {
+            return totalValue;
+        }
+    }
+}
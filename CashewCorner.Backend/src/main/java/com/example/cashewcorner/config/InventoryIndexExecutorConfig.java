@@ -0,0 +1,26 @@
+package com.example.cashewcorner.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor that re-reads changed inventory rows into the inventory index after commit.
+ * A single thread applies the refreshes in the order they were read, and the committing
+ * request thread returns without waiting for them.
+ */
+@Configuration
+public class InventoryIndexExecutorConfig {
+
+    @Bean(name = "inventoryIndexExecutor")
+    public ThreadPoolTaskExecutor inventoryIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        // Changed products are coalesced into one pending refresh
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("inventory-index-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.cashewcorner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor that writes queued inventory events to SSE subscribers.
+ * SseEmitter.send blocks while a client is not reading, and each subscriber is drained by
+ * at most one task at a time, so the pool keeps pool-size threads and grows up to one per
+ * subscriber instead of queueing: a stalled client holds only its own thread and never
+ * delays the others. InventoryStreamService counts a dropped subscriber against
+ * max-subscribers until its blocked write returns; the pool-size threads on top of that
+ * cover drains that have let go of their subscriber but not yet of their thread.
+ */
+@Configuration
+public class InventoryStreamExecutorConfig {
+
+    @Value("${inventory.stream.executor.pool-size:4}")
+    private int poolSize;
+
+    @Value("${inventory.stream.max-subscribers:200}")
+    private int maxSubscribers;
+
+    @Bean(name = "inventoryStreamExecutor")
+    public ThreadPoolTaskExecutor inventoryStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(maxSubscribers + poolSize);
+        // Hand each drain straight to a thread; threads beyond the core exit when idle
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("inventory-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.cashewcorner.config;
 
-import com.example.cashewcorner.entity.User;
 import com.example.cashewcorner.service.AuthService;
+import com.example.cashewcorner.service.AuthenticatedPrincipal;
+import com.example.cashewcorner.service.PrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,14 +11,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,9 +27,13 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final AuthService authService;
+    private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(AuthService authService) {
+    public JwtAuthenticationFilter(AuthService authService, JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.authService = authService;
+        this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -39,27 +43,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = extractJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
-                // Check if token is blacklisted
-                if (authService.isTokenBlacklisted(jwt)) {
-                    log.warn("JWT Token is blacklisted - Token has been logged out");
+                // Verify signature and expiry once; the parsed claims carry everything needed below
+                Claims claims = jwtUtil.parseClaims(jwt);
+                String username = claims.getSubject();
+
+                // Refresh tokens may only be exchanged at /api/auth/refresh, never used as access tokens
+                if (jwtUtil.isRefreshToken(claims)) {
+                    log.warn("JWT Token Rejected - Refresh token presented as access token [username={}]", username);
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                String username = authService.extractUsername(jwt);
+                // Check if token has been revoked by logout
+                if (authService.isTokenRevoked(claims, jwt)) {
+                    log.warn("JWT Token is revoked - Token has been logged out");
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                if (authService.validateToken(jwt, username)) {
+                if (StringUtils.hasText(username)) {
                     log.debug("JWT Token Validated - [username={}]", username);
 
-                    // Get user with role information
-                    User user = authService.getUserByUsername(username);
-                    List<GrantedAuthority> authorities = new ArrayList<>();
+                    // Resolve role and active flag from the principal cache; the DB is only hit on a miss
+                    AuthenticatedPrincipal principal = principalCache.get(username,
+                            name -> AuthenticatedPrincipal.from(authService.getUserByUsername(name)));
 
-                    if (user.getRole() != null) {
-                        authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName()));
-                        log.debug("JWT Token Authorities - [username={}, role={}]", username, user.getRole().getRoleName());
+                    if (!principal.isActive()) {
+                        log.warn("JWT Token Rejected - User account is inactive [username={}]", username);
+                        filterChain.doFilter(request, response);
+                        return;
                     }
 
+                    List<GrantedAuthority> authorities = principal.getAuthorities();
+                    log.debug("JWT Token Authorities - [username={}, authorities={}]", username, authorities);
+
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(username, null, authorities);
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
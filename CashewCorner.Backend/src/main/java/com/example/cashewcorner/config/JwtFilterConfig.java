@@ -1,6 +1,7 @@
 package com.example.cashewcorner.config;
 
 import com.example.cashewcorner.service.AuthService;
+import com.example.cashewcorner.service.PrincipalCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,10 +16,13 @@ public class JwtFilterConfig {
      * Create JWT Authentication Filter bean.
      *
      * @param authService the authentication service
+     * @param jwtUtil the JWT utility holding the shared parser
+     * @param principalCache cache of authenticated principals
      * @return JwtAuthenticationFilter instance
      */
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(AuthService authService) {
-        return new JwtAuthenticationFilter(authService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(AuthService authService, JwtUtil jwtUtil,
+                                                           PrincipalCache principalCache) {
+        return new JwtAuthenticationFilter(authService, jwtUtil, principalCache);
     }
 }
@@ -1,17 +1,25 @@
 package com.example.cashewcorner.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT utility class for token generation and validation.
@@ -21,6 +29,9 @@ import java.util.Map;
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_TYPE = "type";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret:your-secret-key-change-this-in-production-environment}")
     private String jwtSecret;
 
@@ -30,6 +41,18 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration:604800000}")
     private long refreshTokenExpiration;
 
+    // Built once from the configured secret; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     /**
      * Generate JWT access token for a user.
      *
@@ -41,7 +64,7 @@ public class JwtUtil {
         log.debug("Generating access token - [username={}]", username);
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        return createToken(claims, username, jwtExpiration);
+        return createToken(claims, username, jwtExpiration, UUID.randomUUID().toString());
     }
 
     /**
@@ -49,14 +72,15 @@ public class JwtUtil {
      *
      * @param username the username
      * @param userId   the user ID
+     * @param tokenId  the token ID (jti) under which the token is persisted
      * @return JWT refresh token
      */
-    public String generateRefreshToken(String username, Long userId) {
+    public String generateRefreshToken(String username, Long userId, String tokenId) {
         log.debug("Generating refresh token - [username={}]", username);
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        claims.put("type", "refresh");
-        return createToken(claims, username, refreshTokenExpiration);
+        claims.put(CLAIM_TYPE, TOKEN_TYPE_REFRESH);
+        return createToken(claims, username, refreshTokenExpiration, tokenId);
     }
 
     /**
@@ -65,20 +89,20 @@ public class JwtUtil {
      * @param claims     the claims to include
      * @param subject    the subject (username)
      * @param expiration the expiration time in milliseconds
+     * @param tokenId    the token ID (jti)
      * @return JWT token
      */
-    private String createToken(Map<String, Object> claims, String subject, long expiration) {
+    private String createToken(Map<String, Object> claims, String subject, long expiration, String tokenId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .id(tokenId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -125,6 +149,38 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verify the token's signature and expiry and return its claims.
+     * Callers that need several claims should parse once and read them from the result.
+     *
+     * @param token the JWT token
+     * @return all claims
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Identifier used to revoke a token: its jti, or a SHA-256 of the token for
+     * tokens issued before jti was added.
+     *
+     * @param claims the verified claims of the token
+     * @param token  the JWT token
+     * @return token id
+     */
+    public String tokenId(Claims claims, String token) {
+        if (claims.getId() != null) {
+            return claims.getId();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Extract all claims from JWT token.
      *
@@ -132,12 +188,7 @@ public class JwtUtil {
      * @return all claims
      */
     private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseClaims(token);
     }
 
     /**
@@ -164,8 +215,8 @@ public class JwtUtil {
      */
     public Boolean validateToken(String token, String username) {
         try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && !isTokenExpired(token));
+            final Claims claims = parseClaims(token);
+            return (claims.getSubject().equals(username) && !claims.getExpiration().before(new Date()));
         } catch (Exception e) {
             log.warn("Token validation failed - [username={}, error={}]", username, e.getMessage());
             return false;
@@ -180,5 +231,23 @@ public class JwtUtil {
     public long getTokenExpiration() {
         return jwtExpiration;
     }
-}
 
+    /**
+     * Get refresh token expiration time in milliseconds.
+     *
+     * @return refresh token expiration time
+     */
+    public long getRefreshTokenExpiration() {
+        return refreshTokenExpiration;
+    }
+
+    /**
+     * Check whether verified claims belong to a refresh token.
+     *
+     * @param claims the verified claims
+     * @return true for refresh tokens
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cashewcorner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for password hashing (BCrypt).
+ * Hashing is CPU bound, so it gets a small fixed pool and a short queue instead of
+ * running on every Tomcat worker at once; submissions beyond the queue are rejected
+ * so a login burst cannot starve the rest of the API.
+ */
+@Configuration
+public class PasswordHashingExecutorConfig {
+
+    @Value("${security.password.hashing.pool-size:0}")
+    private int poolSize;
+
+    @Value("${security.password.hashing.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        // 0 means half of the available cores, at least one
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.cashewcorner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for background report jobs.
+ * Bounded in both threads and queue so report work cannot take over the
+ * connection pool; submissions beyond the queue are rejected.
+ */
+@Configuration
+public class ReportExecutorConfig {
+
+    @Value("${reports.executor.pool-size:2}")
+    private int poolSize;
+
+    @Value("${reports.executor.queue-capacity:25}")
+    private int queueCapacity;
+
+    @Bean(name = "reportExecutor")
+    public ThreadPoolTaskExecutor reportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
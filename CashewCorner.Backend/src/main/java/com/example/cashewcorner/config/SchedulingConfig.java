@@ -0,0 +1,12 @@
+package com.example.cashewcorner.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled housekeeping tasks (e.g. purging expired token revocations).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
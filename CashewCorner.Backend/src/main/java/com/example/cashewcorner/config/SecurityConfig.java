@@ -1,5 +1,6 @@
 package com.example.cashewcorner.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -28,12 +29,14 @@ public class SecurityConfig {
 
     /**
      * Configure password encoder using BCrypt.
+     * Hashes stored with a lower cost than configured are upgraded on the next successful login.
      *
+     * @param strength the BCrypt log rounds (4-31)
      * @return BCryptPasswordEncoder bean
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
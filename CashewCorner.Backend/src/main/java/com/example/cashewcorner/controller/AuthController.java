@@ -3,7 +3,9 @@ package com.example.cashewcorner.controller;
 import com.example.cashewcorner.dto.LoginRequestDto;
 import com.example.cashewcorner.dto.LoginResponseDto;
 import com.example.cashewcorner.dto.LogoutResponseDto;
+import com.example.cashewcorner.dto.RefreshTokenRequestDto;
 import com.example.cashewcorner.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -33,19 +35,39 @@ public class AuthController {
      * Authenticates user with username and password, returns JWT tokens.
      *
      * @param loginRequest the login request containing email and password
+     * @param request      the HTTP request, for the client address
      * @return ResponseEntity with login response containing tokens
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest,
+                                                  HttpServletRequest request) {
         log.info("User Login Request - [email={}]", loginRequest.getEmail());
 
-        LoginResponseDto response = authService.login(loginRequest);
+        LoginResponseDto response = authService.login(loginRequest, request.getRemoteAddr());
 
         log.info("User Login Response - [email={}, message={}]", loginRequest.getEmail(), response.getMessage());
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Refresh endpoint.
+     * Exchanges a refresh token for a new access token and a rotated refresh token.
+     *
+     * @param refreshRequest the request containing the refresh token
+     * @return ResponseEntity with the new tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDto> refresh(@Valid @RequestBody RefreshTokenRequestDto refreshRequest) {
+        log.info("Token Refresh Request");
+
+        LoginResponseDto response = authService.refresh(refreshRequest.getRefreshToken());
+
+        log.info("Token Refresh Response - [username={}]", response.getUser().getUsername());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Logout endpoint.
      * Logs out the authenticated user by blacklisting their token.
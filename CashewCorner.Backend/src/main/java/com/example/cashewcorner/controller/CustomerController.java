@@ -76,6 +76,19 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * Get active customers one page at a time.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/customers/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<CursorPageDto<CustomerDto>> getCustomersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching customer page - [size={}]", size);
+        return ResponseEntity.ok(customerService.getCustomersPage(cursor, size));
+    }
+
     /**
      * Get customer by ID.
      * Accessible by all authenticated users.
@@ -2,13 +2,16 @@ package com.example.cashewcorner.controller;
 
 import com.example.cashewcorner.dto.*;
 import com.example.cashewcorner.service.InventoryService;
+import com.example.cashewcorner.service.InventoryStreamService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,9 +27,12 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryStreamService inventoryStreamService;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService,
+                               InventoryStreamService inventoryStreamService) {
         this.inventoryService = inventoryService;
+        this.inventoryStreamService = inventoryStreamService;
     }
 
     /**
@@ -67,6 +73,31 @@ public class InventoryController {
         return ResponseEntity.ok(inventory);
     }
 
+    /**
+     * Stream inventory changes as Server-Sent Events, pushed once they are committed.
+     * Load GET /api/inventory first, then apply "inventory" events; reload on "resync".
+     * Accessible by authenticated users.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public SseEmitter streamInventory() {
+        log.info("Inventory stream request - [subscribers={}]", inventoryStreamService.getSubscriberCount());
+        return inventoryStreamService.subscribe();
+    }
+
+    /**
+     * Get inventory records one page at a time.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<CursorPageDto<InventoryDto>> getInventoryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching inventory page - [size={}]", size);
+        return ResponseEntity.ok(inventoryService.getInventoryPage(cursor, size));
+    }
+
     /**
      * Get inventory with available stock only.
      * Accessible by authenticated users.
@@ -157,6 +188,20 @@ public class InventoryController {
         return ResponseEntity.ok(movements);
     }
 
+    /**
+     * Get stock movements one page at a time, newest first.
+     * Accessible by ADMIN and MANAGER roles.
+     */
+    @GetMapping("/movements/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CursorPageDto<StockMovementDto>> getStockMovementsPage(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching stock movement page - [productId={}, size={}]", productId, size);
+        return ResponseEntity.ok(inventoryService.getStockMovementsPage(productId, cursor, size));
+    }
+
     /**
      * Search stock movements by criteria.
      * Accessible by ADMIN and MANAGER roles.
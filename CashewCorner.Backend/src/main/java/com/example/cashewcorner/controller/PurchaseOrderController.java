@@ -1,15 +1,22 @@
 package com.example.cashewcorner.controller;
 
 import com.example.cashewcorner.dto.CreatePurchaseOrderRequestDto;
+import com.example.cashewcorner.dto.CursorPageDto;
 import com.example.cashewcorner.dto.PurchaseOrderDto;
+import com.example.cashewcorner.dto.PurchaseOrderImportResultDto;
+import com.example.cashewcorner.dto.ReceivePurchaseOrderRequestDto;
 import com.example.cashewcorner.service.PurchaseOrderService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -40,6 +47,38 @@ public class PurchaseOrderController {
         return new ResponseEntity<>(purchaseOrder, HttpStatus.CREATED);
     }
 
+    /**
+     * Import purchase orders from an uploaded CSV file.
+     * Columns: supplier_id, order_date, sku, quantity, unit_price, optional po_ref and expected_date.
+     * Accessible by ADMIN and MANAGER roles.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<PurchaseOrderImportResultDto> importPurchaseOrders(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        log.info("Purchase order import request - [file={}, size={}]", file.getOriginalFilename(), file.getSize());
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(purchaseOrderService.importPurchaseOrders(input));
+        }
+    }
+
+    /**
+     * Receive a delivery against a purchase order (any number of its lines) in one request.
+     * Accessible by ADMIN and MANAGER roles.
+     */
+    @PostMapping("/{purchaseOrderId}/receive")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<PurchaseOrderDto> receivePurchaseOrder(@PathVariable Long purchaseOrderId,
+                                                                 @Valid @RequestBody ReceivePurchaseOrderRequestDto request) {
+        log.info("Purchase order receive request - [purchaseOrderId={}, lines={}]",
+                purchaseOrderId, request.getLines().size());
+        PurchaseOrderDto purchaseOrder = purchaseOrderService.receivePurchaseOrder(purchaseOrderId, request);
+        return ResponseEntity.ok(purchaseOrder);
+    }
+
     /**
      * Get all active purchase orders.
      * Accessible by authenticated users.
@@ -52,6 +91,19 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(purchaseOrders);
     }
 
+    /**
+     * Get active purchase orders one page at a time, newest first.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<CursorPageDto<PurchaseOrderDto>> getPurchaseOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching purchase order page - [size={}]", size);
+        return ResponseEntity.ok(purchaseOrderService.getPurchaseOrdersPage(cursor, size));
+    }
+
     /**
      * Get purchase order by ID.
      * Accessible by authenticated users.
@@ -2,20 +2,34 @@ package com.example.cashewcorner.controller;
 
 import com.example.cashewcorner.dto.CategoryFinancialSummaryDto;
 import com.example.cashewcorner.dto.CategoryVolumeReportDto;
+import com.example.cashewcorner.dto.CursorPageDto;
 import com.example.cashewcorner.dto.GenerateReportRequestDto;
 import com.example.cashewcorner.dto.ReportDto;
+import com.example.cashewcorner.dto.RollupRebuildResultDto;
 import com.example.cashewcorner.dto.SellingPriceFluctuationDto;
 import com.example.cashewcorner.dto.TransactionSummaryDto;
+import com.example.cashewcorner.entity.Report;
+import com.example.cashewcorner.service.MonthlyRollupService;
+import com.example.cashewcorner.service.ReportExportService;
+import com.example.cashewcorner.service.ReportJobService;
 import com.example.cashewcorner.service.ReportService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST Controller for report and analytics endpoints.
@@ -28,9 +42,18 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final ReportJobService reportJobService;
+    private final ReportExportService reportExportService;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService,
+                            MonthlyRollupService monthlyRollupService,
+                            ReportJobService reportJobService,
+                            ReportExportService reportExportService) {
         this.reportService = reportService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.reportJobService = reportJobService;
+        this.reportExportService = reportExportService;
     }
 
     /**
@@ -42,13 +65,23 @@ public class ReportController {
      * - SALES_PERFORMANCE: Sales analytics and top customers
      * - PAYROLL_SUMMARY: Payroll overview for a period
      * - LOW_STOCK_ALERT: Items below reorder level
+     * - SALES_LINES: Sales order lines for a year or date range (streamed by the download endpoint)
+     *
+     * With async=true the report is queued and 202 is returned with the reportId;
+     * poll GET /api/reports/{reportId} for the status and fetch the result through
+     * GET /api/reports/{reportId}/download once it is COMPLETED.
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<ReportDto> generateReport(@Valid @RequestBody GenerateReportRequestDto request,
+                                                    @RequestParam(defaultValue = "false") boolean async,
                                                     Authentication authentication) {
-        log.info("Report generation request - [type={}, user={}]", 
-                request.getReportType(), authentication.getName());
+        log.info("Report generation request - [type={}, user={}, async={}]", 
+                request.getReportType(), authentication.getName(), async);
+        if (async) {
+            ReportDto queued = reportJobService.enqueueReport(request, authentication.getName());
+            return new ResponseEntity<>(queued, HttpStatus.ACCEPTED);
+        }
         ReportDto report = reportService.generateReport(request, authentication.getName());
         return new ResponseEntity<>(report, HttpStatus.CREATED);
     }
@@ -65,6 +98,19 @@ public class ReportController {
         return ResponseEntity.ok(reports);
     }
 
+    /**
+     * Get generated reports one page at a time, newest first.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CursorPageDto<ReportDto>> getReportsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching report page - [size={}]", size);
+        return ResponseEntity.ok(reportService.getReportsPage(cursor, size));
+    }
+
     /**
      * Get report by ID.
      * Accessible by ADMIN and MANAGER roles.
@@ -90,37 +136,82 @@ public class ReportController {
     }
 
     /**
-     * Download report (placeholder for future file download implementation).
+     * Download a report.
+     * SALES_LINES reports are streamed straight from the database as CSV or NDJSON
+     * (format=csv|ndjson, default csv). Other types return the stored JSON payload once
+     * the job is COMPLETED; otherwise the report metadata (202 while queued or running).
      * Accessible by ADMIN and MANAGER roles.
      */
     @GetMapping("/{reportId}/download")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<ReportDto> downloadReport(@PathVariable Long reportId) {
-        log.info("Download report request - [reportId={}]", reportId);
+    public ResponseEntity<?> downloadReport(@PathVariable Long reportId,
+                                            @RequestParam(required = false) String format) {
+        log.info("Download report request - [reportId={}, format={}]", reportId, format);
         ReportDto report = reportService.getReportById(reportId);
-        // In a real implementation, this would return a file download
-        // For now, returning the report data as JSON
-        return ResponseEntity.ok(report);
+
+        if (ReportService.REPORT_TYPE_SALES_LINES.equalsIgnoreCase(report.getReportType())) {
+            String exportFormat = ReportExportService.normalizeFormat(format);
+            boolean csv = ReportExportService.FORMAT_CSV.equals(exportFormat);
+            StreamingResponseBody body = out ->
+                    reportExportService.exportSalesLines(report.getParameters(), exportFormat, out);
+            return ResponseEntity.ok()
+                    .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"report-" + reportId + "-sales-lines." + exportFormat + "\"")
+                    .body(body);
+        }
+
+        if (report.getFilePath() == null) {
+            boolean pending = Report.STATUS_QUEUED.equals(report.getStatus())
+                    || Report.STATUS_RUNNING.equals(report.getStatus());
+            return ResponseEntity.status(pending ? HttpStatus.ACCEPTED : HttpStatus.OK).body(report);
+        }
+
+        Path file = reportJobService.resolveReportFile(report.getFilePath());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
     }
 
     /**
-     * Get selling price fluctuation report for a specific product.
-     * Returns monthly aggregated selling price statistics (average, highest, lowest).
+     * Get selling price fluctuation report for one or more products.
+     * Returns monthly aggregated selling price statistics (average, highest, lowest, line count).
      * Accessible by ADMIN and MANAGER roles.
      *
-     * @param productId the product ID to filter by (required)
-     * @param year optional year filter (defaults to current year if not provided)
-     * @return list of monthly price fluctuation data
+     * @param productId a single product ID (kept for existing clients)
+     * @param productIds several product IDs, e.g. productIds=1,2,3 (combined with productId)
+     * @param year optional single year (defaults to current year if no range is given)
+     * @param fromYear optional first year of a range (inclusive)
+     * @param toYear optional last year of a range (inclusive)
+     * @return list of monthly price fluctuation data ordered by product, year and month
      */
     @GetMapping("/selling-price-fluctuation")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<List<SellingPriceFluctuationDto>> getSellingPriceFluctuation(
-            @RequestParam Long productId,
-            @RequestParam(required = false) Integer year) {
-        log.info("Selling price fluctuation report request - [productId={}, year={}]", productId, year);
-        List<SellingPriceFluctuationDto> report = reportService.getSellingPriceFluctuation(productId, year);
-        log.info("Selling price fluctuation report generated - [productId={}, year={}, recordsCount={}]",
-                productId, year, report.size());
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) List<Long> productIds,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer fromYear,
+            @RequestParam(required = false) Integer toYear) {
+        log.info("Selling price fluctuation report request - [productId={}, productIds={}, year={}, fromYear={}, toYear={}]",
+                productId, productIds, year, fromYear, toYear);
+
+        Set<Long> ids = new LinkedHashSet<>();
+        if (productId != null) {
+            ids.add(productId);
+        }
+        if (productIds != null) {
+            ids.addAll(productIds);
+        }
+
+        int defaultYear = year != null ? year : LocalDate.now().getYear();
+        int startYear = fromYear != null ? fromYear : (toYear != null ? toYear : defaultYear);
+        int endYear = toYear != null ? toYear : (fromYear != null ? fromYear : defaultYear);
+
+        List<SellingPriceFluctuationDto> report = reportService.getSellingPriceFluctuation(ids, startYear, endYear);
+        log.info("Selling price fluctuation report generated - [productIds={}, fromYear={}, toYear={}, recordsCount={}]",
+                ids, startYear, endYear, report.size());
         return ResponseEntity.ok(report);
     }
 
@@ -179,4 +270,23 @@ public class ReportController {
         log.info("Category volume report generated - [year={}, type={}, recordsCount={}]", year, type, report.size());
         return ResponseEntity.ok(report);
     }
+
+    /**
+     * Rebuild the monthly product rollups from the order items.
+     * Used to backfill historical data or repair the rollup after manual data fixes.
+     * Accessible by ADMIN role only.
+     *
+     * @param fromYear first year to rebuild (inclusive)
+     * @param toYear last year to rebuild (inclusive, defaults to fromYear)
+     * @return number of rollup rows written per type
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RollupRebuildResultDto> rebuildRollups(
+            @RequestParam Integer fromYear,
+            @RequestParam(required = false) Integer toYear) {
+        log.info("Rollup rebuild request - [fromYear={}, toYear={}]", fromYear, toYear);
+        RollupRebuildResultDto result = monthlyRollupService.rebuildYears(fromYear, toYear != null ? toYear : fromYear);
+        return ResponseEntity.ok(result);
+    }
 }
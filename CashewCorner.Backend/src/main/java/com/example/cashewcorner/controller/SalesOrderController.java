@@ -1,6 +1,9 @@
 package com.example.cashewcorner.controller;
 
+import com.example.cashewcorner.dto.BatchCreateSalesOrderRequestDto;
 import com.example.cashewcorner.dto.CreateSalesOrderRequestDto;
+import com.example.cashewcorner.dto.CursorPageDto;
+import com.example.cashewcorner.dto.SalesOrderBatchResultDto;
 import com.example.cashewcorner.dto.SalesOrderDto;
 import com.example.cashewcorner.service.SalesOrderService;
 import jakarta.validation.Valid;
@@ -40,6 +43,35 @@ public class SalesOrderController {
         return new ResponseEntity<>(salesOrder, HttpStatus.CREATED);
     }
 
+    /**
+     * Create many sales orders in one request.
+     * Orders are validated and saved independently; the response reports the outcome of each.
+     * Accessible by ADMIN and MANAGER roles.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<SalesOrderBatchResultDto> createSalesOrdersBatch(
+            @Valid @RequestBody BatchCreateSalesOrderRequestDto request) {
+        log.info("Sales order batch creation request - [orders={}]", request.getOrders().size());
+        SalesOrderBatchResultDto result = salesOrderService.createSalesOrdersBatch(request.getOrders());
+        HttpStatus status = result.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY;
+        return new ResponseEntity<>(result, status);
+    }
+
+    /**
+     * Update sales order status (confirmed, delivered or cancelled).
+     * Cancelling releases reserved stock; delivering ships it.
+     * Accessible by ADMIN and MANAGER roles.
+     */
+    @PatchMapping("/{salesOrderId}/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<SalesOrderDto> updateSalesOrderStatus(@PathVariable Long salesOrderId,
+                                                                @RequestParam String status) {
+        log.info("Sales order status update request - [salesOrderId={}, status={}]", salesOrderId, status);
+        SalesOrderDto salesOrder = salesOrderService.updateSalesOrderStatus(salesOrderId, status);
+        return ResponseEntity.ok(salesOrder);
+    }
+
     /**
      * Get all active sales orders.
      * Accessible by authenticated users.
@@ -52,6 +84,19 @@ public class SalesOrderController {
         return ResponseEntity.ok(salesOrders);
     }
 
+    /**
+     * Get active sales orders one page at a time, newest first.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<CursorPageDto<SalesOrderDto>> getSalesOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching sales order page - [size={}]", size);
+        return ResponseEntity.ok(salesOrderService.getSalesOrdersPage(cursor, size));
+    }
+
     /**
      * Get sales order by ID.
      * Accessible by authenticated users.
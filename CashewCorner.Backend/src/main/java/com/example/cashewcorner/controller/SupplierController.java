@@ -77,6 +77,19 @@ public class SupplierController {
         return ResponseEntity.ok(suppliers);
     }
 
+    /**
+     * Get active suppliers one page at a time.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<CursorPageDto<SupplierDto>> getSuppliersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching supplier page - [size={}]", size);
+        return ResponseEntity.ok(supplierService.getSuppliersPage(cursor, size));
+    }
+
     /**
      * Get supplier by ID.
      * Accessible by authenticated users.
@@ -66,6 +66,19 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get users one page at a time.
+     * Returns at most size rows plus a cursor for the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<CursorPageDto<UserResponseDto>> getUsersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("User Page Request - Fetching users - [size={}]", size);
+        return ResponseEntity.ok(userService.getUsersPage(cursor, size));
+    }
+
     /**
      * Update user information.
      * Only accessible by ADMIN role.
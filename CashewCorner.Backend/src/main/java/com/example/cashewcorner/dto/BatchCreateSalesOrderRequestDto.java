@@ -0,0 +1,28 @@
+package com.example.cashewcorner.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating many sales orders in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateSalesOrderRequestDto {
+
+    public static final int MAX_ORDERS = 1000;
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = MAX_ORDERS, message = "At most " + MAX_ORDERS + " orders per batch")
+    @Valid
+    private List<CreateSalesOrderRequestDto> orders;
+}
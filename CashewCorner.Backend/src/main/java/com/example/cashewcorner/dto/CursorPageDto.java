@@ -0,0 +1,98 @@
+package com.example.cashewcorner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing.
+ * The cursor is an opaque token holding the id of the last row returned; passing
+ * it back fetches the rows after that id, so each page is an index range seek
+ * no matter how deep the client has scrolled.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    /**
+     * Rows of this page.
+     */
+    private List<T> items;
+
+    /**
+     * Token for the next page, or null when this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether more rows exist after this page.
+     */
+    private boolean hasMore;
+
+    /**
+     * Requested page size.
+     */
+    private int size;
+
+    /**
+     * Clamp a requested page size to [1, MAX_SIZE], defaulting to DEFAULT_SIZE.
+     */
+    public static int resolveSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Decode a cursor token into the id to seek from; null or blank means the first page.
+     */
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of size + 1; the extra row only signals that more exist.
+     */
+    public static <E, T> CursorPageDto<T> of(List<E> rows, int size, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        return CursorPageDto.<T>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(idOf.apply(pageRows.get(pageRows.size() - 1))) : null)
+                .hasMore(hasMore)
+                .size(size)
+                .build();
+    }
+}
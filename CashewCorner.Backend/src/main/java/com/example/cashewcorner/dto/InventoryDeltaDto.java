@@ -0,0 +1,28 @@
+package com.example.cashewcorner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * New stock level of one inventory row, pushed on GET /api/inventory/stream.
+ * Quantities are absolute, so applying the same delta twice is harmless.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryDeltaDto {
+    private Long inventoryId;
+    private Long productId;
+    private String location;
+    private BigDecimal quantityOnHand;
+    private BigDecimal reservedQuantity;
+    private BigDecimal availableQuantity;
+    private boolean lowStock;
+    private LocalDateTime lastUpdated;
+}
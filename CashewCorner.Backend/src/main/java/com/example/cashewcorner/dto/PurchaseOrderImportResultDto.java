@@ -0,0 +1,53 @@
+package com.example.cashewcorner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO describing the outcome of a purchase order CSV import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurchaseOrderImportResultDto {
+
+    /**
+     * Number of data lines read (header and blank lines excluded).
+     */
+    private Long linesRead;
+
+    /**
+     * Number of purchase orders created.
+     */
+    private Long ordersCreated;
+
+    /**
+     * Number of purchase orders rejected because of an invalid line or a failed save.
+     */
+    private Long ordersRejected;
+
+    /**
+     * Number of lines imported as order items.
+     */
+    private Long linesImported;
+
+    /**
+     * Number of lines belonging to rejected orders.
+     */
+    private Long linesRejected;
+
+    /**
+     * Rejection reasons with line numbers; capped, see errorsTruncated.
+     */
+    private List<String> errors;
+
+    /**
+     * Whether more errors occurred than are listed.
+     */
+    private Boolean errorsTruncated;
+}
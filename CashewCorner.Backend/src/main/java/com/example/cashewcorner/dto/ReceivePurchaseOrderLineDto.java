@@ -0,0 +1,34 @@
+package com.example.cashewcorner.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for one delivered line of a purchase order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReceivePurchaseOrderLineDto {
+
+    @NotNull(message = "Purchase order item ID is required")
+    private Long purchaseOrderItemId;
+
+    @NotNull(message = "Quantity is required")
+    @DecimalMin(value = "0.0001", message = "Quantity must be greater than 0")
+    private BigDecimal quantity;
+
+    /**
+     * Overrides the delivery's location for this line.
+     */
+    @Size(max = 150, message = "Location must not exceed 150 characters")
+    private String location;
+}
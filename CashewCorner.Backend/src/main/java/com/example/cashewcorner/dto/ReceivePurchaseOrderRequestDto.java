@@ -0,0 +1,39 @@
+package com.example.cashewcorner.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for receiving a purchase order delivery (all of its lines) in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReceivePurchaseOrderRequestDto {
+
+    public static final int MAX_LINES = 500;
+
+    /**
+     * Location receiving the goods, unless a line names its own.
+     */
+    @NotBlank(message = "Location is required")
+    @Size(max = 150, message = "Location must not exceed 150 characters")
+    private String location;
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = MAX_LINES, message = "At most " + MAX_LINES + " lines per delivery")
+    @Valid
+    private List<ReceivePurchaseOrderLineDto> lines;
+
+    @Size(max = 1000, message = "Notes must not exceed 1000 characters")
+    private String notes;
+}
@@ -19,5 +19,8 @@ public class ReportDto {
     private String generatedBy;
     private LocalDateTime generatedAt;
     private String filePath;
+    private String status;
+    private LocalDateTime completedAt;
+    private String errorMessage;
     private Map<String, Object> data;
 }
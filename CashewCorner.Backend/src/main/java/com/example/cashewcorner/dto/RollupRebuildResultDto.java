@@ -0,0 +1,36 @@
+package com.example.cashewcorner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing the outcome of a monthly rollup rebuild.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupRebuildResultDto {
+
+    /**
+     * First year rebuilt (inclusive).
+     */
+    private Integer fromYear;
+
+    /**
+     * Last year rebuilt (inclusive).
+     */
+    private Integer toYear;
+
+    /**
+     * Number of SALES rollup rows written.
+     */
+    private Integer salesRows;
+
+    /**
+     * Number of PURCHASE rollup rows written.
+     */
+    private Integer purchaseRows;
+}
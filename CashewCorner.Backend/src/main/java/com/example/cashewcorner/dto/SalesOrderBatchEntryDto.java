@@ -0,0 +1,48 @@
+package com.example.cashewcorner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO describing the outcome of one order within a batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesOrderBatchEntryDto {
+
+    /**
+     * Position of the order in the request (0-based).
+     */
+    private Integer index;
+
+    /**
+     * Whether the order was created.
+     */
+    private Boolean success;
+
+    /**
+     * Id of the created order.
+     */
+    private Long salesOrderId;
+
+    /**
+     * Number of the created order.
+     */
+    private String soNumber;
+
+    /**
+     * Total of the created order.
+     */
+    private BigDecimal totalAmount;
+
+    /**
+     * Reason the order was rejected.
+     */
+    private String error;
+}
@@ -0,0 +1,38 @@
+package com.example.cashewcorner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO describing the outcome of a batch sales order creation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesOrderBatchResultDto {
+
+    /**
+     * Number of orders in the request.
+     */
+    private Integer requested;
+
+    /**
+     * Number of orders created.
+     */
+    private Integer created;
+
+    /**
+     * Number of orders rejected.
+     */
+    private Integer failed;
+
+    /**
+     * Outcome per order, in request order.
+     */
+    private List<SalesOrderBatchEntryDto> results;
+}
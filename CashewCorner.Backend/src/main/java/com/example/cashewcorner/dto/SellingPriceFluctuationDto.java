@@ -17,6 +17,16 @@ import java.math.BigDecimal;
 @Builder
 public class SellingPriceFluctuationDto {
 
+    /**
+     * The product the statistics belong to.
+     */
+    private Long productId;
+
+    /**
+     * Name of the product.
+     */
+    private String productName;
+
     /**
      * The year of the data.
      */
@@ -41,5 +51,10 @@ public class SellingPriceFluctuationDto {
      * Lowest selling price recorded in that month.
      */
     private BigDecimal lowestPrice;
+
+    /**
+     * Number of sales order lines the statistics are based on.
+     */
+    private Long transactionCount;
 }
 
@@ -0,0 +1,83 @@
+package com.example.cashewcorner.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated monthly sales or purchase totals for one product.
+ * Rows are upserted when orders are created and can be rebuilt per year
+ * from the order item tables.
+ */
+@Entity
+@Table(name = "monthly_product_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"rollup_type", "product_id", "rollup_year", "rollup_month"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class MonthlyProductRollup {
+
+    public static final String TYPE_SALES = "SALES";
+    public static final String TYPE_PURCHASE = "PURCHASE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    @EqualsAndHashCode.Include
+    private Long rollupId;
+
+    @Column(name = "rollup_type", nullable = false, length = 20)
+    private String rollupType;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "rollup_year", nullable = false)
+    private Integer rollupYear;
+
+    @Column(name = "rollup_month", nullable = false)
+    private Integer rollupMonth;
+
+    @Column(name = "total_quantity", precision = 20, scale = 4, nullable = false)
+    @Builder.Default
+    private BigDecimal totalQuantity = BigDecimal.ZERO;
+
+    @Column(name = "total_value", precision = 24, scale = 6, nullable = false)
+    @Builder.Default
+    private BigDecimal totalValue = BigDecimal.ZERO;
+
+    @Column(name = "min_unit_price", precision = 15, scale = 2)
+    private BigDecimal minUnitPrice;
+
+    @Column(name = "max_unit_price", precision = 15, scale = 2)
+    private BigDecimal maxUnitPrice;
+
+    @Column(name = "price_sum", precision = 20, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal priceSum = BigDecimal.ZERO;
+
+    @Column(name = "line_count", nullable = false)
+    @Builder.Default
+    private Long lineCount = 0L;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -27,7 +28,9 @@ import java.util.List;
 public class PurchaseOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "purchase_orders_id")
+    @TableGenerator(name = "purchase_orders_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "purchase_orders", allocationSize = 50)
     @Column(name = "purchase_order_id")
     @EqualsAndHashCode.Include
     private Long purchaseOrderId;
@@ -71,6 +74,7 @@ public class PurchaseOrder {
     @Builder.Default
     private Boolean isActive = true;
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "purchaseOrder", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<PurchaseOrderItem> items = new ArrayList<>();
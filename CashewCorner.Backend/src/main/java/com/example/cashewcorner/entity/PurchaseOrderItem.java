@@ -24,7 +24,9 @@ import java.time.LocalDateTime;
 public class PurchaseOrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "purchase_order_items_id")
+    @TableGenerator(name = "purchase_order_items_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "purchase_order_items", allocationSize = 50)
     @Column(name = "purchase_order_item_id")
     @EqualsAndHashCode.Include
     private Long purchaseOrderItemId;
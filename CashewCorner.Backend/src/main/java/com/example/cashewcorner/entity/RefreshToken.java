@@ -0,0 +1,84 @@
+package com.example.cashewcorner.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An issued refresh token (by jti).
+ * Tokens descending from one login share a family; each refresh marks the presented
+ * token used and issues the next one in the family. Presenting an already used token
+ * means it was copied, so the whole family is revoked.
+ * <p>
+ * The id is assigned by the application, so the entity reports itself new until it is
+ * persisted or loaded; save() then inserts directly instead of selecting to merge.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "user")
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_id", length = 64)
+    @EqualsAndHashCode.Include
+    private String tokenId;
+
+    @Column(name = "family_id", nullable = false, length = 64)
+    private String familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @CreationTimestamp
+    @Column(name = "issued_at", nullable = false, updatable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(name = "revoked", nullable = false)
+    @Builder.Default
+    private Boolean revoked = false;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newToken = true;
+
+    @Override
+    public String getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newToken;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newToken = false;
+    }
+}
@@ -21,6 +21,11 @@ import java.time.LocalDateTime;
 @ToString(exclude = "generatedBy")
 public class Report {
 
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "report_id")
@@ -43,4 +48,14 @@ public class Report {
 
     @Column(name = "file_path", length = 500)
     private String filePath;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private String status = STATUS_COMPLETED;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
 }
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -27,7 +28,9 @@ import java.util.List;
 public class SalesOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sales_orders_id")
+    @TableGenerator(name = "sales_orders_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "sales_orders", allocationSize = 50)
     @Column(name = "sales_order_id")
     @EqualsAndHashCode.Include
     private Long salesOrderId;
@@ -71,6 +74,7 @@ public class SalesOrder {
     @Builder.Default
     private Boolean isActive = true;
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "salesOrder", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<SalesOrderItem> items = new ArrayList<>();
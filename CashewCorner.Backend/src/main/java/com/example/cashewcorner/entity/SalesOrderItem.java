@@ -24,7 +24,9 @@ import java.time.LocalDateTime;
 public class SalesOrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sales_order_items_id")
+    @TableGenerator(name = "sales_order_items_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "sales_order_items", allocationSize = 50)
     @Column(name = "sales_order_item_id")
     @EqualsAndHashCode.Include
     private Long salesOrderItemId;
@@ -22,7 +22,9 @@ import java.time.LocalDateTime;
 public class StockMovement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_movements_id")
+    @TableGenerator(name = "stock_movements_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "stock_movements", allocationSize = 50)
     @Column(name = "movement_id")
     @EqualsAndHashCode.Include
     private Long movementId;
@@ -0,0 +1,11 @@
+package com.example.cashewcorner.exception;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource
+ * (e.g. not enough stock left, or the resource was changed concurrently).
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.cashewcorner.exception;
+
+/**
+ * Exception thrown when the server is temporarily unable to accept more work.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.cashewcorner.exception;
+
+/**
+ * Exception thrown when a client exceeds a rate limit.
+ * Carries how long the client should wait before retrying.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,8 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByCustomerIdAndIsActiveTrue(Long customerId);
 
+    List<Customer> findByCustomerIdInAndIsActiveTrue(Collection<Long> customerIds);
+
     @Query("SELECT c FROM Customer c WHERE c.isActive = true AND " +
            "(LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.phone) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
@@ -24,4 +28,11 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
 
     Optional<Customer> findByPhone(String phone);
+
+    /**
+     * Keyset page of active rows, in id order: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @Query("SELECT c FROM Customer c WHERE c.isActive = true AND (:afterId IS NULL OR c.customerId > :afterId) ORDER BY c.customerId ASC")
+    List<Customer> findActivePage(@Param("afterId") Long afterId, Pageable pageable);
 }
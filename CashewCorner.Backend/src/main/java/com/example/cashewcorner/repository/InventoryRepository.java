@@ -1,11 +1,17 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.Inventory;
+import com.example.cashewcorner.repository.projection.InventoryAvailabilityProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +22,16 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
     List<Inventory> findByProductProductId(Long productId);
 
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product")
+    List<Inventory> findAllWithProduct();
+
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product p WHERE p.productId IN :productIds")
+    List<Inventory> findByProductIdsWithProduct(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT i FROM Inventory i WHERE i.product.productId IN :productIds AND i.location IN :locations")
+    List<Inventory> findByProductIdsAndLocations(@Param("productIds") Collection<Long> productIds,
+                                                 @Param("locations") Collection<String> locations);
+
     @Query("SELECT i FROM Inventory i WHERE i.location = :location")
     List<Inventory> findByLocation(@Param("location") String location);
 
@@ -30,4 +46,80 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
            "(:location IS NULL OR LOWER(i.location) LIKE LOWER(CONCAT('%', :location, '%')))")
     List<Inventory> searchInventory(@Param("productName") String productName, 
                                     @Param("location") String location);
+
+    /**
+     * Keyset page of rows, in id order: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @Query("SELECT i FROM Inventory i WHERE (:afterId IS NULL OR i.inventoryId > :afterId) ORDER BY i.inventoryId ASC")
+    List<Inventory> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Locations holding unreserved stock of the product, in id order so concurrent
+     * reservations lock them in the same order.
+     */
+    @Query("SELECT i.inventoryId AS inventoryId, i.quantityOnHand - i.reservedQuantity AS availableQuantity " +
+           "FROM Inventory i WHERE i.product.productId = :productId AND i.quantityOnHand > i.reservedQuantity " +
+           "ORDER BY i.inventoryId")
+    List<InventoryAvailabilityProjection> findAvailableByProduct(@Param("productId") Long productId);
+
+    /**
+     * Reserve the quantity if that much is still unreserved; returns 0 (and changes nothing) otherwise.
+     * Managed Inventory instances are not refreshed by this or the other bulk updates below.
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, i.lastUpdated = :now " +
+           "WHERE i.inventoryId = :inventoryId AND i.quantityOnHand - i.reservedQuantity >= :quantity")
+    int reserve(@Param("inventoryId") Long inventoryId, @Param("quantity") BigDecimal quantity,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity, i.lastUpdated = :now " +
+           "WHERE i.inventoryId = :inventoryId AND i.reservedQuantity >= :quantity")
+    int releaseReserved(@Param("inventoryId") Long inventoryId, @Param("quantity") BigDecimal quantity,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * Ship reserved stock: take the quantity off both on-hand and reserved.
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityOnHand = i.quantityOnHand - :quantity, " +
+           "i.reservedQuantity = i.reservedQuantity - :quantity, i.lastUpdated = :now " +
+           "WHERE i.inventoryId = :inventoryId AND i.reservedQuantity >= :quantity AND i.quantityOnHand >= :quantity")
+    int consumeReserved(@Param("inventoryId") Long inventoryId, @Param("quantity") BigDecimal quantity,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * Add received stock to the product's row at the location, creating the row if there is
+     * none, in a single statement (relies on the unique key on product_id, location).
+     * Concurrent receipts for the same row queue on the row lock instead of overwriting each
+     * other. MySQL syntax.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO inventory (product_id, location, quantity_on_hand, reserved_quantity, last_updated) " +
+                   "VALUES (:productId, :location, :quantity, 0, :now) " +
+                   "ON DUPLICATE KEY UPDATE quantity_on_hand = quantity_on_hand + VALUES(quantity_on_hand), " +
+                   "last_updated = VALUES(last_updated)",
+           nativeQuery = true)
+    int receive(@Param("productId") Long productId, @Param("location") String location,
+                @Param("quantity") BigDecimal quantity, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityOnHand = i.quantityOnHand + :quantity, i.lastUpdated = :now " +
+           "WHERE i.product.productId = :productId AND i.location = :location")
+    int addOnHand(@Param("productId") Long productId, @Param("location") String location,
+                  @Param("quantity") BigDecimal quantity, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove stock only if that much is on hand and not reserved; returns 0 (and changes nothing) otherwise.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityOnHand = i.quantityOnHand - :quantity, i.lastUpdated = :now " +
+           "WHERE i.product.productId = :productId AND i.location = :location " +
+           "AND i.quantityOnHand - i.reservedQuantity >= :quantity")
+    int removeOnHand(@Param("productId") Long productId, @Param("location") String location,
+                     @Param("quantity") BigDecimal quantity, @Param("now") LocalDateTime now);
+
+    @Query("SELECT i.quantityOnHand FROM Inventory i WHERE i.inventoryId = :inventoryId")
+    BigDecimal findQuantityOnHand(@Param("inventoryId") Long inventoryId);
 }
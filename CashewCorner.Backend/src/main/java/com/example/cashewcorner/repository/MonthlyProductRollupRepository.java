@@ -0,0 +1,131 @@
+package com.example.cashewcorner.repository;
+
+import com.example.cashewcorner.entity.MonthlyProductRollup;
+import com.example.cashewcorner.repository.projection.MonthlyTotalProjection;
+import com.example.cashewcorner.repository.projection.ProductMonthlyTotalProjection;
+import com.example.cashewcorner.repository.projection.YearLineCountProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MonthlyProductRollupRepository extends JpaRepository<MonthlyProductRollup, Long> {
+
+    @Query("SELECT r.rollupMonth AS orderMonth, SUM(r.totalValue) AS totalValue " +
+           "FROM MonthlyProductRollup r " +
+           "WHERE r.rollupType = :type AND r.rollupYear = :year " +
+           "GROUP BY r.rollupMonth")
+    List<MonthlyTotalProjection> sumValueByMonth(@Param("type") String type, @Param("year") Integer year);
+
+    @Query("SELECT r.productId AS productId, r.rollupMonth AS orderMonth, " +
+           "r.totalQuantity AS totalQuantity, r.totalValue AS totalValue " +
+           "FROM MonthlyProductRollup r " +
+           "WHERE r.rollupType = :type AND r.rollupYear = :year")
+    List<ProductMonthlyTotalProjection> findProductTotals(@Param("type") String type, @Param("year") Integer year);
+
+    /**
+     * Add one order's contribution for a product to its monthly bucket,
+     * creating the bucket on first use.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_product_rollups " +
+                   "(rollup_type, product_id, rollup_year, rollup_month, total_quantity, total_value, " +
+                   "min_unit_price, max_unit_price, price_sum, line_count, order_count, updated_at) " +
+                   "VALUES (:type, :productId, :year, :month, :quantity, :value, " +
+                   ":minPrice, :maxPrice, :priceSum, :lineCount, 1, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "total_quantity = total_quantity + VALUES(total_quantity), " +
+                   "total_value = total_value + VALUES(total_value), " +
+                   "min_unit_price = LEAST(COALESCE(min_unit_price, VALUES(min_unit_price)), VALUES(min_unit_price)), " +
+                   "max_unit_price = GREATEST(COALESCE(max_unit_price, VALUES(max_unit_price)), VALUES(max_unit_price)), " +
+                   "price_sum = price_sum + VALUES(price_sum), " +
+                   "line_count = line_count + VALUES(line_count), " +
+                   "order_count = order_count + 1, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int upsertOrderContribution(@Param("type") String type,
+                                @Param("productId") Long productId,
+                                @Param("year") Integer year,
+                                @Param("month") Integer month,
+                                @Param("quantity") BigDecimal quantity,
+                                @Param("value") BigDecimal value,
+                                @Param("minPrice") BigDecimal minPrice,
+                                @Param("maxPrice") BigDecimal maxPrice,
+                                @Param("priceSum") BigDecimal priceSum,
+                                @Param("lineCount") Long lineCount);
+
+    /**
+     * Order lines counted in the rollup per year, for one rollup type.
+     */
+    @Query(value = "SELECT rollup_year AS year, SUM(line_count) AS lineCount " +
+                   "FROM monthly_product_rollups WHERE rollup_type = :type " +
+                   "GROUP BY rollup_year",
+           nativeQuery = true)
+    List<YearLineCountProjection> countRolledUpLinesByYear(@Param("type") String type);
+
+    /**
+     * Active sales order lines per year of order creation.
+     */
+    @Query(value = "SELECT YEAR(so.created_at) AS year, COUNT(*) AS lineCount " +
+                   "FROM sales_order_items soi " +
+                   "JOIN sales_orders so ON so.sales_order_id = soi.sales_order_id " +
+                   "WHERE so.is_active = TRUE " +
+                   "GROUP BY YEAR(so.created_at)",
+           nativeQuery = true)
+    List<YearLineCountProjection> countSalesLinesByYear();
+
+    /**
+     * Active purchase order lines per year of order creation.
+     */
+    @Query(value = "SELECT YEAR(po.created_at) AS year, COUNT(*) AS lineCount " +
+                   "FROM purchase_order_items poi " +
+                   "JOIN purchase_orders po ON po.purchase_order_id = poi.purchase_order_id " +
+                   "WHERE po.is_active = TRUE " +
+                   "GROUP BY YEAR(po.created_at)",
+           nativeQuery = true)
+    List<YearLineCountProjection> countPurchaseLinesByYear();
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_product_rollups WHERE rollup_year = :year", nativeQuery = true)
+    int deleteByYear(@Param("year") Integer year);
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_product_rollups " +
+                   "(rollup_type, product_id, rollup_year, rollup_month, total_quantity, total_value, " +
+                   "min_unit_price, max_unit_price, price_sum, line_count, order_count, updated_at) " +
+                   "SELECT 'SALES', soi.product_id, :year, MONTH(so.created_at), " +
+                   "SUM(soi.quantity), SUM(soi.quantity * soi.unit_price), " +
+                   "MIN(soi.unit_price), MAX(soi.unit_price), SUM(soi.unit_price), " +
+                   "COUNT(*), COUNT(DISTINCT so.sales_order_id), CURRENT_TIMESTAMP " +
+                   "FROM sales_order_items soi " +
+                   "JOIN sales_orders so ON so.sales_order_id = soi.sales_order_id " +
+                   "WHERE so.is_active = TRUE AND so.created_at >= :start AND so.created_at < :end " +
+                   "GROUP BY soi.product_id, MONTH(so.created_at)",
+           nativeQuery = true)
+    int rebuildSalesForYear(@Param("year") Integer year,
+                            @Param("start") LocalDateTime start,
+                            @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query(value = "INSERT INTO monthly_product_rollups " +
+                   "(rollup_type, product_id, rollup_year, rollup_month, total_quantity, total_value, " +
+                   "min_unit_price, max_unit_price, price_sum, line_count, order_count, updated_at) " +
+                   "SELECT 'PURCHASE', poi.product_id, :year, MONTH(po.created_at), " +
+                   "SUM(poi.quantity), SUM(poi.quantity * poi.unit_price), " +
+                   "MIN(poi.unit_price), MAX(poi.unit_price), SUM(poi.unit_price), " +
+                   "COUNT(*), COUNT(DISTINCT po.purchase_order_id), CURRENT_TIMESTAMP " +
+                   "FROM purchase_order_items poi " +
+                   "JOIN purchase_orders po ON po.purchase_order_id = poi.purchase_order_id " +
+                   "WHERE po.is_active = TRUE AND po.created_at >= :start AND po.created_at < :end " +
+                   "GROUP BY poi.product_id, MONTH(po.created_at)",
+           nativeQuery = true)
+    int rebuildPurchasesForYear(@Param("year") Integer year,
+                                @Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end);
+}
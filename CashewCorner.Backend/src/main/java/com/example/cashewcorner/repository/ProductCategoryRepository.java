@@ -1,6 +1,7 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.ProductCategory;
+import com.example.cashewcorner.repository.projection.ProductCategoryPairProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,4 +22,8 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     @Query("SELECT c FROM ProductCategory c WHERE c.isActive = true AND " +
            "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<ProductCategory> searchByName(@Param("searchTerm") String searchTerm);
+
+    @Query("SELECT p.productId AS productId, c.categoryId AS categoryId " +
+           "FROM Product p JOIN p.categories c WHERE c.isActive = true")
+    List<ProductCategoryPairProjection> findActiveProductCategoryPairs();
 }
@@ -1,11 +1,13 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.repository.projection.ProductSkuProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,11 +17,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.isActive = true")
     List<Product> findByIsActiveTrue();
 
+    List<Product> findByProductIdInAndIsActiveTrue(Collection<Long> productIds);
+
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.productId = :productId AND p.isActive = true")
     Optional<Product> findByProductIdAndIsActiveTrue(@Param("productId") Long productId);
 
     Optional<Product> findBySku(String sku);
 
+    /**
+     * SKU and id of every active product, without loading the entities.
+     */
+    @Query("SELECT p.sku AS sku, p.productId AS productId FROM Product p WHERE p.isActive = true")
+    List<ProductSkuProjection> findActiveSkuIndex();
+
     @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.isActive = true AND " +
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Product> searchByName(@Param("searchTerm") String searchTerm);
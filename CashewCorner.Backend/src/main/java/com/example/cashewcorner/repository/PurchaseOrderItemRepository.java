@@ -32,28 +32,4 @@ public interface PurchaseOrderItemRepository extends JpaRepository<PurchaseOrder
             @Param("productId") Long productId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
-
-    /**
-     * Find purchase order items for a product within a specific year.
-     */
-    @Query("SELECT poi FROM PurchaseOrderItem poi " +
-           "JOIN poi.purchaseOrder po " +
-           "WHERE poi.product.productId = :productId " +
-           "AND YEAR(po.createdAt) = :year " +
-           "AND po.isActive = true " +
-           "ORDER BY po.createdAt ASC")
-    List<PurchaseOrderItem> findByProductIdAndYear(
-            @Param("productId") Long productId,
-            @Param("year") Integer year);
-
-    /**
-     * Find all purchase order items for a specific year.
-     */
-    @Query("SELECT poi FROM PurchaseOrderItem poi " +
-           "JOIN poi.purchaseOrder po " +
-           "WHERE YEAR(po.createdAt) = :year " +
-           "AND po.isActive = true " +
-           "ORDER BY po.createdAt ASC")
-    List<PurchaseOrderItem> findByYear(@Param("year") Integer year);
 }
-
@@ -1,24 +1,48 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.PurchaseOrder;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
 
+    @EntityGraph(attributePaths = "supplier")
     List<PurchaseOrder> findByIsActiveTrue();
 
     Optional<PurchaseOrder> findByPurchaseOrderIdAndIsActiveTrue(Long purchaseOrderId);
 
+    /**
+     * Load an order with its items and their products, locking the order's rows until the
+     * transaction ends so two deliveries against it cannot both count the same outstanding quantity.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"supplier", "items", "items.product"})
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.purchaseOrderId = :purchaseOrderId AND po.isActive = true")
+    Optional<PurchaseOrder> findForReceiving(@Param("purchaseOrderId") Long purchaseOrderId);
+
+    @EntityGraph(attributePaths = "supplier")
     @Query("SELECT po FROM PurchaseOrder po WHERE po.supplier.supplierId = :supplierId AND po.isActive = true ORDER BY po.orderDate DESC")
     List<PurchaseOrder> findBySupplierIdAndIsActiveTrue(@Param("supplierId") Long supplierId);
 
+    /**
+     * Active orders of several suppliers in one query, for per-supplier aggregation.
+     */
+    @EntityGraph(attributePaths = "supplier")
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.supplier.supplierId IN :supplierIds AND po.isActive = true")
+    List<PurchaseOrder> findBySupplierIdInAndIsActiveTrue(@Param("supplierIds") Collection<Long> supplierIds);
+
+    @EntityGraph(attributePaths = "supplier")
     @Query("SELECT po FROM PurchaseOrder po WHERE po.status = :status AND po.isActive = true")
     List<PurchaseOrder> findByStatus(@Param("status") String status);
 
@@ -26,4 +50,12 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
 
     @Query("SELECT MAX(po.poNumber) FROM PurchaseOrder po WHERE po.poNumber LIKE CONCAT('PO', :year, '%')")
     String findLatestPoNumberForYear(@Param("year") String year);
+
+    /**
+     * Keyset page of active rows, newest first: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @EntityGraph(attributePaths = "supplier")
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.isActive = true AND (:beforeId IS NULL OR po.purchaseOrderId < :beforeId) ORDER BY po.purchaseOrderId DESC")
+    List<PurchaseOrder> findActivePage(@Param("beforeId") Long beforeId, Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.example.cashewcorner.repository;
+
+import com.example.cashewcorner.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Mark a token used if it is still unused and not revoked.
+     * The conditional update makes concurrent refreshes with the same token race
+     * safely: exactly one caller gets 1, every other caller gets 0.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.usedAt = :usedAt " +
+           "WHERE rt.tokenId = :tokenId AND rt.usedAt IS NULL AND rt.revoked = false")
+    int markUsed(@Param("tokenId") String tokenId, @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user.userId = :userId AND rt.revoked = false")
+    int revokeAllForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
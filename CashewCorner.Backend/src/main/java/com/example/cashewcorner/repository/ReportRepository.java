@@ -1,10 +1,13 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.Report;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,4 +27,39 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
 
     @Query("SELECT r FROM Report r ORDER BY r.generatedAt DESC")
     List<Report> findAllOrderByGeneratedAtDesc();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :status WHERE r.reportId = :reportId")
+    int updateStatus(@Param("reportId") Long reportId, @Param("status") String status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = 'COMPLETED', r.filePath = :filePath, r.completedAt = :completedAt, " +
+           "r.errorMessage = NULL WHERE r.reportId = :reportId")
+    int markCompleted(@Param("reportId") Long reportId,
+                      @Param("filePath") String filePath,
+                      @Param("completedAt") LocalDateTime completedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = 'FAILED', r.errorMessage = :errorMessage, r.completedAt = :completedAt " +
+           "WHERE r.reportId = :reportId")
+    int markFailed(@Param("reportId") Long reportId,
+                   @Param("errorMessage") String errorMessage,
+                   @Param("completedAt") LocalDateTime completedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Report r SET r.status = 'FAILED', r.errorMessage = :errorMessage, r.completedAt = :completedAt " +
+           "WHERE r.status IN ('QUEUED', 'RUNNING')")
+    int failUnfinishedJobs(@Param("errorMessage") String errorMessage,
+                           @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Keyset page of rows, newest first: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @Query("SELECT r FROM Report r WHERE (:beforeId IS NULL OR r.reportId < :beforeId) ORDER BY r.reportId DESC")
+    List<Report> findPage(@Param("beforeId") Long beforeId, Pageable pageable);
 }
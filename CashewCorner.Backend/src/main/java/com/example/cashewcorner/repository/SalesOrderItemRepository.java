@@ -1,12 +1,20 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.SalesOrderItem;
+import com.example.cashewcorner.repository.projection.MonthlyPriceStatsProjection;
+import com.example.cashewcorner.repository.projection.SalesLineExportProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SalesOrderItemRepository extends JpaRepository<SalesOrderItem, Long> {
@@ -17,25 +25,57 @@ public interface SalesOrderItemRepository extends JpaRepository<SalesOrderItem,
     List<SalesOrderItem> findByProductProductId(Long productId);
 
     /**
-     * Find sales order items for a product within a specific year.
+     * Unit price statistics per product and month for lines created within [start, end).
+     * One grouped statement covers every requested product.
      */
-    @Query("SELECT soi FROM SalesOrderItem soi " +
+    @Query("SELECT soi.product.productId AS productId, MONTH(so.createdAt) AS orderMonth, " +
+           "SUM(soi.unitPrice) AS priceSum, MIN(soi.unitPrice) AS lowestPrice, " +
+           "MAX(soi.unitPrice) AS highestPrice, COUNT(soi) AS lineCount " +
+           "FROM SalesOrderItem soi " +
            "JOIN soi.salesOrder so " +
-           "WHERE soi.product.productId = :productId " +
-           "AND YEAR(so.createdAt) = :year " +
+           "WHERE soi.product.productId IN :productIds " +
+           "AND so.createdAt >= :start " +
+           "AND so.createdAt < :end " +
            "AND so.isActive = true " +
-           "ORDER BY so.createdAt ASC")
-    List<SalesOrderItem> findByProductIdAndYear(
-            @Param("productId") Long productId,
-            @Param("year") Integer year);
+           "GROUP BY soi.product.productId, MONTH(so.createdAt)")
+    List<MonthlyPriceStatsProjection> findPriceStatsByProductAndMonth(
+            @Param("productIds") Collection<Long> productIds,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
 
     /**
-     * Find all sales order items for a specific year.
+     * Count active sales order lines created within [start, end).
      */
-    @Query("SELECT soi FROM SalesOrderItem soi " +
+    @Query("SELECT COUNT(soi) FROM SalesOrderItem soi " +
            "JOIN soi.salesOrder so " +
-           "WHERE YEAR(so.createdAt) = :year " +
+           "WHERE so.createdAt >= :start " +
+           "AND so.createdAt < :end " +
+           "AND so.isActive = true")
+    long countByPeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Stream flat sales order lines created within [start, end) for export.
+     * Rows are scalar projections fetched in chunks through a database cursor, so nothing
+     * accumulates in the persistence context. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT soi.salesOrderItemId AS salesOrderItemId, so.soNumber AS soNumber, " +
+           "so.orderDate AS orderDate, so.createdAt AS createdAt, " +
+           "c.customerId AS customerId, c.name AS customerName, " +
+           "p.productId AS productId, p.sku AS productSku, p.name AS productName, " +
+           "soi.quantity AS quantity, soi.unitPrice AS unitPrice " +
+           "FROM SalesOrderItem soi " +
+           "JOIN soi.salesOrder so " +
+           "JOIN so.customer c " +
+           "JOIN soi.product p " +
+           "WHERE so.createdAt >= :start " +
+           "AND so.createdAt < :end " +
            "AND so.isActive = true " +
-           "ORDER BY so.createdAt ASC")
-    List<SalesOrderItem> findByYear(@Param("year") Integer year);
+           "ORDER BY so.createdAt ASC, soi.salesOrderItemId ASC")
+    Stream<SalesLineExportProjection> streamLinesByPeriod(@Param("start") LocalDateTime start,
+                                                          @Param("end") LocalDateTime end);
 }
@@ -1,32 +1,83 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.SalesOrder;
+import com.example.cashewcorner.repository.projection.CustomerSalesTotalProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long> {
 
+    @EntityGraph(attributePaths = "customer")
     List<SalesOrder> findByIsActiveTrue();
 
     Optional<SalesOrder> findBySalesOrderIdAndIsActiveTrue(Long salesOrderId);
 
+    @EntityGraph(attributePaths = "customer")
     @Query("SELECT so FROM SalesOrder so WHERE so.customer.customerId = :customerId AND so.isActive = true ORDER BY so.orderDate DESC")
     List<SalesOrder> findByCustomerIdAndIsActiveTrue(@Param("customerId") Long customerId);
 
+    @EntityGraph(attributePaths = "customer")
     @Query("SELECT so FROM SalesOrder so WHERE so.status = :status AND so.isActive = true")
     List<SalesOrder> findByStatus(@Param("status") String status);
 
     Optional<SalesOrder> findBySoNumber(String soNumber);
 
+    @EntityGraph(attributePaths = "customer")
     @Query("SELECT so FROM SalesOrder so WHERE LOWER(so.soNumber) LIKE LOWER(CONCAT('%', :orderNo, '%')) AND so.isActive = true")
     List<SalesOrder> searchByOrderNumber(@Param("orderNo") String orderNo);
 
     @Query("SELECT MAX(so.soNumber) FROM SalesOrder so WHERE so.soNumber LIKE CONCAT('SO', :year, '%')")
     String findLatestSoNumberForYear(@Param("year") String year);
+
+    /**
+     * Top customers by sales for an order date range, plus the overall totals, in one statement.
+     * The first row (null customerId) holds the sum and count across all customers; the
+     * following rows are the top customers ordered by total sales, limited in SQL.
+     */
+    @Query(value = "SELECT t.customerId, t.customerName, t.totalSales, t.orderCount FROM (" +
+                   "SELECT 0 AS rowKind, NULL AS customerId, NULL AS customerName, " +
+                   "SUM(so.total_amount) AS totalSales, COUNT(*) AS orderCount " +
+                   "FROM sales_orders so " +
+                   "WHERE so.is_active = TRUE AND so.order_date BETWEEN :startDate AND :endDate " +
+                   "UNION ALL " +
+                   "SELECT 1 AS rowKind, top.customerId, top.customerName, top.totalSales, top.orderCount FROM (" +
+                   "SELECT c.customer_id AS customerId, c.name AS customerName, " +
+                   "SUM(so.total_amount) AS totalSales, COUNT(*) AS orderCount " +
+                   "FROM sales_orders so " +
+                   "JOIN customers c ON c.customer_id = so.customer_id " +
+                   "WHERE so.is_active = TRUE AND so.order_date BETWEEN :startDate AND :endDate " +
+                   "GROUP BY c.customer_id, c.name " +
+                   "ORDER BY totalSales DESC, c.customer_id " +
+                   "LIMIT :limit) top" +
+                   ") t ORDER BY t.rowKind, t.totalSales DESC, t.customerId",
+           nativeQuery = true)
+    List<CustomerSalesTotalProjection> findSalesTotalsWithTopCustomers(@Param("startDate") LocalDate startDate,
+                                                                      @Param("endDate") LocalDate endDate,
+                                                                      @Param("limit") int limit);
+
+    /**
+     * Keyset page of active rows, newest first: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @EntityGraph(attributePaths = "customer")
+    @Query("SELECT so FROM SalesOrder so WHERE so.isActive = true AND (:beforeId IS NULL OR so.salesOrderId < :beforeId) ORDER BY so.salesOrderId DESC")
+    List<SalesOrder> findActivePage(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Switch the status only if it is still the expected one; returns 0 otherwise.
+     */
+    @Modifying
+    @Query("UPDATE SalesOrder so SET so.status = :status WHERE so.salesOrderId = :salesOrderId AND so.status = :expected")
+    int updateStatus(@Param("salesOrderId") Long salesOrderId, @Param("expected") String expected,
+                     @Param("status") String status);
 }
@@ -1,6 +1,7 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.StockMovement;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -35,4 +36,20 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
                                         @Param("movementType") String movementType,
                                         @Param("startDate") LocalDateTime startDate,
                                         @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Keyset page of rows, newest first: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @Query("SELECT sm FROM StockMovement sm WHERE (:beforeId IS NULL OR sm.movementId < :beforeId) ORDER BY sm.movementId DESC")
+    List<StockMovement> findPage(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Keyset page of one product's movements, newest first.
+     */
+    @Query("SELECT sm FROM StockMovement sm WHERE sm.product.productId = :productId " +
+           "AND (:beforeId IS NULL OR sm.movementId < :beforeId) ORDER BY sm.movementId DESC")
+    List<StockMovement> findPageByProduct(@Param("productId") Long productId,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
 }
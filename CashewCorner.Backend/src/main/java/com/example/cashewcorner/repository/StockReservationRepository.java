@@ -0,0 +1,33 @@
+package com.example.cashewcorner.repository;
+
+import com.example.cashewcorner.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Reservations of an order in inventory id order, so releasing or consuming them locks
+     * inventory rows in the same order as reserving does.
+     */
+    @Query("SELECT r FROM StockReservation r WHERE r.salesOrder.salesOrderId = :salesOrderId AND r.status = :status " +
+           "ORDER BY r.inventory.inventoryId")
+    List<StockReservation> findBySalesOrderAndStatus(@Param("salesOrderId") Long salesOrderId,
+                                                     @Param("status") String status);
+
+    /**
+     * Move a reservation out of RESERVED; returns 0 if another request already did.
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status, r.updatedAt = :now " +
+           "WHERE r.reservationId = :reservationId AND r.status = 'RESERVED'")
+    int closeReservation(@Param("reservationId") Long reservationId, @Param("status") String status,
+                         @Param("now") LocalDateTime now);
+}
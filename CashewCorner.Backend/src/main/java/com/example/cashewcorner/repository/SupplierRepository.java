@@ -1,6 +1,7 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.Supplier;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,4 +24,11 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
 
     @Query("SELECT s FROM Supplier s WHERE s.isApproved = true AND s.isActive = true")
     List<Supplier> findApprovedSuppliers();
+
+    /**
+     * Keyset page of active rows, in id order: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @Query("SELECT s FROM Supplier s WHERE s.isActive = true AND (:afterId IS NULL OR s.supplierId > :afterId) ORDER BY s.supplierId ASC")
+    List<Supplier> findActivePage(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,11 +1,13 @@
 package com.example.cashewcorner.repository;
 
 import com.example.cashewcorner.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -64,5 +66,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.isActive = true")
     Optional<User> findActiveByEmail(@Param("email") String email);
-}
 
+    /**
+     * Keyset page of rows, in id order: rows past the cursor id (null for the first page),
+     * limited by the pageable's page size.
+     */
+    @Query("SELECT u FROM User u WHERE (:afterId IS NULL OR u.userId > :afterId) ORDER BY u.userId ASC")
+    List<User> findPage(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.example.cashewcorner.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales total and order count for one customer over a period.
+ * A row with a null customer id carries the totals across all customers.
+ */
+public interface CustomerSalesTotalProjection {
+
+    Long getCustomerId();
+
+    String getCustomerName();
+
+    BigDecimal getTotalSales();
+
+    Long getOrderCount();
+}
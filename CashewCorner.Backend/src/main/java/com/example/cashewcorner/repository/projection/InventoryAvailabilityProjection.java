@@ -0,0 +1,13 @@
+package com.example.cashewcorner.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an inventory row's id and unreserved quantity.
+ */
+public interface InventoryAvailabilityProjection {
+
+    Long getInventoryId();
+
+    BigDecimal getAvailableQuantity();
+}
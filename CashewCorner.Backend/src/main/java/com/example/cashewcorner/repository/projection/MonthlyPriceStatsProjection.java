@@ -0,0 +1,22 @@
+package com.example.cashewcorner.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Unit price statistics of one product's sales lines in one month.
+ * The average is derived as priceSum / lineCount to keep decimal precision.
+ */
+public interface MonthlyPriceStatsProjection {
+
+    Long getProductId();
+
+    Integer getOrderMonth();
+
+    BigDecimal getPriceSum();
+
+    BigDecimal getLowestPrice();
+
+    BigDecimal getHighestPrice();
+
+    Long getLineCount();
+}
@@ -0,0 +1,14 @@
+package com.example.cashewcorner.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for a monthly aggregate row.
+ * Holds the month number (1-12) and the summed line value for that month.
+ */
+public interface MonthlyTotalProjection {
+
+    Integer getOrderMonth();
+
+    BigDecimal getTotalValue();
+}
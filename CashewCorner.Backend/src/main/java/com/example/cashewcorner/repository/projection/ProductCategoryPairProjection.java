@@ -0,0 +1,11 @@
+package com.example.cashewcorner.repository.projection;
+
+/**
+ * Projection for a single row of the product_category_map join table.
+ */
+public interface ProductCategoryPairProjection {
+
+    Long getProductId();
+
+    Long getCategoryId();
+}
@@ -0,0 +1,18 @@
+package com.example.cashewcorner.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for a per-product monthly aggregate row.
+ * Holds the summed quantity and line value of one product in one month.
+ */
+public interface ProductMonthlyTotalProjection {
+
+    Long getProductId();
+
+    Integer getOrderMonth();
+
+    BigDecimal getTotalQuantity();
+
+    BigDecimal getTotalValue();
+}
@@ -0,0 +1,11 @@
+package com.example.cashewcorner.repository.projection;
+
+/**
+ * Projection of a product's SKU and id, for SKU -> productId lookups.
+ */
+public interface ProductSkuProjection {
+
+    String getSku();
+
+    Long getProductId();
+}
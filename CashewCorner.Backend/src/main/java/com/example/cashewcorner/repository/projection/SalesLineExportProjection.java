@@ -0,0 +1,33 @@
+package com.example.cashewcorner.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat sales order line used by the streaming report export.
+ */
+public interface SalesLineExportProjection {
+
+    Long getSalesOrderItemId();
+
+    String getSoNumber();
+
+    LocalDate getOrderDate();
+
+    LocalDateTime getCreatedAt();
+
+    Long getCustomerId();
+
+    String getCustomerName();
+
+    Long getProductId();
+
+    String getProductSku();
+
+    String getProductName();
+
+    BigDecimal getQuantity();
+
+    BigDecimal getUnitPrice();
+}
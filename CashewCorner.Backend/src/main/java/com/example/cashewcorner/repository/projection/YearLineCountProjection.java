@@ -0,0 +1,12 @@
+package com.example.cashewcorner.repository.projection;
+
+/**
+ * Projection for a per-year line count.
+ * Used to compare the order item tables against the monthly rollup.
+ */
+public interface YearLineCountProjection {
+
+    Integer getYear();
+
+    Long getLineCount();
+}
@@ -5,18 +5,24 @@ import com.example.cashewcorner.dto.LoginRequestDto;
 import com.example.cashewcorner.dto.LoginResponseDto;
 import com.example.cashewcorner.dto.LogoutResponseDto;
 import com.example.cashewcorner.dto.UserDto;
+import com.example.cashewcorner.entity.RefreshToken;
 import com.example.cashewcorner.entity.User;
 import com.example.cashewcorner.exception.AuthenticationException;
+import com.example.cashewcorner.exception.TooManyRequestsException;
 import com.example.cashewcorner.exception.UserNotFoundException;
+import com.example.cashewcorner.repository.RefreshTokenRepository;
 import com.example.cashewcorner.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.UUID;
 
 /**
  * Service for authentication operations.
@@ -28,40 +34,55 @@ import java.util.Set;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenRepository refreshTokenRepository;
 
-    // Token blacklist for logout functionality
-    private static final Set<String> tokenBlacklist = new HashSet<>();
-
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                       LoginThrottle loginThrottle, JwtUtil jwtUtil,
+                       TokenRevocationStore tokenRevocationStore, RefreshTokenRepository refreshTokenRepository) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenRepository = refreshTokenRepository;
     }
 
     /**
      * Authenticate user and generate tokens.
+     * Runs without a surrounding transaction so no database connection is held while
+     * the password hash is checked on the hashing pool.
      *
      * @param loginRequest the login request containing email and password
+     * @param clientIp     the client address, used for throttling failed attempts
      * @return login response with tokens and user information
      * @throws AuthenticationException if authentication fails
+     * @throws TooManyRequestsException if the email or client IP has too many recent failures
      */
-    public LoginResponseDto login(LoginRequestDto loginRequest) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LoginResponseDto login(LoginRequestDto loginRequest, String clientIp) {
         log.info("User Login Initiated - [email={}]", loginRequest.getEmail());
 
+        loginThrottle.checkAllowed(loginRequest.getEmail(), clientIp);
+
         // Find user by email
         User user = userRepository.findActiveByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> {
                     log.warn("User Login Failed - User not found [email={}]", loginRequest.getEmail());
+                    loginThrottle.recordFailure(loginRequest.getEmail(), clientIp);
                     return new AuthenticationException("Invalid email or password");
                 });
 
         // Validate password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPasswordHash())) {
             log.warn("User Login Failed - Invalid password [email={}]", loginRequest.getEmail());
+            loginThrottle.recordFailure(loginRequest.getEmail(), clientIp);
             throw new AuthenticationException("Invalid email or password");
         }
+        loginThrottle.recordSuccess(loginRequest.getEmail());
 
         // Check if user is active
         if (!user.getIsActive()) {
@@ -71,7 +92,13 @@ public class AuthService {
 
         // Generate tokens
         String accessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getUserId());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getUsername(), user.getUserId());
+        String refreshToken = issueRefreshToken(user, UUID.randomUUID().toString());
+
+        // Re-hash with the configured cost if the stored hash predates a cost change
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHashingService.encode(loginRequest.getPassword()));
+            log.info("Password hash upgraded to configured cost - [userId={}]", user.getUserId());
+        }
 
         // Update last login
         user.setLastLogin(LocalDateTime.now());
@@ -90,6 +117,96 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Exchange a refresh token for a new access token and the next refresh token of its family.
+     * Costs a signature check and two key lookups instead of a password hash. A refresh token
+     * can be used once; presenting it again revokes every token of its family, which logs out
+     * both the legitimate client and whoever copied the token.
+     *
+     * @param refreshToken the refresh token from login or the previous refresh
+     * @return response with the new tokens and user information
+     * @throws AuthenticationException if the token is invalid, expired, reused or revoked
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public LoginResponseDto refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token Refresh Failed - Invalid token [error={}]", e.getMessage());
+            throw new AuthenticationException("Invalid or expired refresh token");
+        }
+
+        if (!jwtUtil.isRefreshToken(claims) || claims.getId() == null) {
+            log.warn("Token Refresh Failed - Not a refresh token [username={}]", claims.getSubject());
+            throw new AuthenticationException("Invalid or expired refresh token");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findById(claims.getId())
+                .orElseThrow(() -> {
+                    log.warn("Token Refresh Failed - Unknown refresh token [username={}]", claims.getSubject());
+                    return new AuthenticationException("Invalid or expired refresh token");
+                });
+
+        if (refreshTokenRepository.markUsed(stored.getTokenId(), LocalDateTime.now()) == 0) {
+            // Already used or revoked: a copy is in circulation, so end the whole session family
+            int revoked = refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            log.warn("Token Refresh Rejected - Refresh token reuse, family revoked [username={}, familyId={}, revoked={}]",
+                    claims.getSubject(), stored.getFamilyId(), revoked);
+            throw new AuthenticationException("Refresh token is no longer valid");
+        }
+
+        User user = stored.getUser();
+        if (!user.getIsActive()) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            log.warn("Token Refresh Failed - User account is inactive [username={}]", user.getUsername());
+            throw new AuthenticationException("User account is inactive");
+        }
+
+        String accessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getUserId());
+        String nextRefreshToken = issueRefreshToken(user, stored.getFamilyId());
+
+        log.info("Token Refresh Successful - [username={}]", user.getUsername());
+
+        return LoginResponseDto.builder()
+                .accessToken(accessToken)
+                .refreshToken(nextRefreshToken)
+                .tokenType("Bearer")
+                .expiresIn(jwtUtil.getTokenExpiration() / 1000) // Convert to seconds
+                .user(mapUserToDto(user))
+                .message("Token refreshed")
+                .build();
+    }
+
+    /**
+     * Issue and persist a refresh token in the given family.
+     *
+     * @param user     the token owner
+     * @param familyId the rotation family (one per login)
+     * @return JWT refresh token
+     */
+    private String issueRefreshToken(User user, String familyId) {
+        String tokenId = UUID.randomUUID().toString();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenId(tokenId)
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getRefreshTokenExpiration())))
+                .build());
+        return jwtUtil.generateRefreshToken(user.getUsername(), user.getUserId(), tokenId);
+    }
+
+    /**
+     * Delete refresh tokens that have expired; their families can no longer be renewed.
+     */
+    @Scheduled(fixedDelayString = "${security.refresh-tokens.purge-interval-ms:3600000}")
+    public void purgeExpiredRefreshTokens() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged expired refresh tokens - [purged={}]", purged);
+        }
+    }
+
     /**
      * Map User entity to UserDto.
      *
@@ -156,7 +273,7 @@ public class AuthService {
     }
 
     /**
-     * Logout user by blacklisting the token.
+     * Logout user by blacklisting the token and revoking the user's refresh tokens.
      *
      * @param token the JWT token to blacklist
      * @param username the username of the user logging out
@@ -165,20 +282,32 @@ public class AuthService {
     public LogoutResponseDto logout(String token, String username) {
         log.info("User Logout Initiated - [username={}]", username);
 
-        // Validate token before logout
-        if (!jwtUtil.validateToken(token, username)) {
-            log.warn("User Logout Failed - Invalid token [username={}]", username);
+        // Validate token before logout; parsing verifies signature and expiry
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("User Logout Failed - Invalid token [username={}, error={}]", username, e.getMessage());
+            throw new AuthenticationException("Invalid or expired token");
+        }
+        if (!username.equals(claims.getSubject())) {
+            log.warn("User Logout Failed - Token subject mismatch [username={}]", username);
             throw new AuthenticationException("Invalid or expired token");
         }
 
-        // Add token to blacklist
-        tokenBlacklist.add(token);
-        log.debug("Token added to blacklist - [username={}]", username);
+        // Revoke the token until it would have expired anyway
+        tokenRevocationStore.revoke(jwtUtil.tokenId(claims, token), claims.getExpiration().toInstant());
+        log.debug("Token revoked - [username={}]", username);
 
         // Update user's last activity (optional)
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
 
+        // Access tokens don't name their refresh family, so end every session of the user;
+        // otherwise a kept refresh token would mint new access tokens after logout
+        int revoked = refreshTokenRepository.revokeAllForUser(user.getUserId());
+        log.debug("Refresh tokens revoked - [username={}, revoked={}]", username, revoked);
+
         log.info("User Logout Successful - [username={}]", username);
 
         return LogoutResponseDto.builder()
@@ -190,13 +319,15 @@ public class AuthService {
     }
 
     /**
-     * Check if a token is blacklisted.
+     * Check if a token has been revoked by logout.
      *
-     * @param token the JWT token
-     * @return true if token is blacklisted, false otherwise
+     * @param claims the verified claims of the token
+     * @param token  the JWT token
+     * @return true if token is revoked, false otherwise
      */
-    public Boolean isTokenBlacklisted(String token) {
-        return tokenBlacklist.contains(token);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean isTokenRevoked(Claims claims, String token) {
+        return tokenRevocationStore.isRevoked(jwtUtil.tokenId(claims, token));
     }
 }
 
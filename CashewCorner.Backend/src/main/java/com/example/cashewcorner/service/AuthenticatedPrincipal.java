@@ -0,0 +1,27 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.entity.User;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * What the JWT filter needs to know about a user to authorize a request:
+ * the granted authorities and whether the account is still active.
+ */
+@Value
+public class AuthenticatedPrincipal {
+
+    String username;
+    List<GrantedAuthority> authorities;
+    boolean active;
+
+    public static AuthenticatedPrincipal from(User user) {
+        List<GrantedAuthority> authorities = user.getRole() != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName()))
+                : List.of();
+        return new AuthenticatedPrincipal(user.getUsername(), authorities, Boolean.TRUE.equals(user.getIsActive()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.repository.projection.ProductCategoryPairProjection;
+import com.example.cashewcorner.repository.projection.ProductMonthlyTotalProjection;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolls per-product monthly totals up into per-category totals.
+ * The productId -> categoryIds index is built once from the mapping rows, and the
+ * totals are then accumulated in a single sweep, so the cost is linear in
+ * (rows + mappings) rather than categories x rows.
+ */
+public final class CategoryAggregationEngine {
+
+    private static final long[] NO_CATEGORIES = new long[0];
+
+    private final Map<Long, long[]> categoryIdsByProduct;
+
+    private CategoryAggregationEngine(Map<Long, long[]> categoryIdsByProduct) {
+        this.categoryIdsByProduct = categoryIdsByProduct;
+    }
+
+    /**
+     * Build the engine from product/category mapping rows.
+     *
+     * @param mappings rows of the product_category_map table
+     * @return engine holding the productId -> categoryIds index
+     */
+    public static CategoryAggregationEngine fromMappings(List<ProductCategoryPairProjection> mappings) {
+        Map<Long, List<Long>> grouped = new HashMap<>();
+        for (ProductCategoryPairProjection mapping : mappings) {
+            grouped.computeIfAbsent(mapping.getProductId(), id -> new ArrayList<>()).add(mapping.getCategoryId());
+        }
+
+        Map<Long, long[]> index = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((productId, categoryIds) ->
+                index.put(productId, categoryIds.stream().mapToLong(Long::longValue).toArray()));
+        return new CategoryAggregationEngine(index);
+    }
+
+    /**
+     * Accumulate totals per category and month in one pass over the rows.
+     *
+     * @param rows per-product monthly totals
+     * @return categoryId -> (month -> totals)
+     */
+    public Map<Long, Map<Integer, Totals>> aggregateByCategoryAndMonth(List<ProductMonthlyTotalProjection> rows) {
+        Map<Long, Map<Integer, Totals>> result = new HashMap<>();
+        for (ProductMonthlyTotalProjection row : rows) {
+            for (long categoryId : categoriesOf(row.getProductId())) {
+                result.computeIfAbsent(categoryId, id -> new HashMap<>())
+                        .computeIfAbsent(row.getOrderMonth(), month -> new Totals())
+                        .add(row.getTotalQuantity(), row.getTotalValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Accumulate totals per category (all months combined) in one pass over the rows.
+     *
+     * @param rows per-product monthly totals
+     * @return categoryId -> totals
+     */
+    public Map<Long, Totals> aggregateByCategory(List<ProductMonthlyTotalProjection> rows) {
+        Map<Long, Totals> result = new HashMap<>();
+        for (ProductMonthlyTotalProjection row : rows) {
+            for (long categoryId : categoriesOf(row.getProductId())) {
+                result.computeIfAbsent(categoryId, id -> new Totals())
+                        .add(row.getTotalQuantity(), row.getTotalValue());
+            }
+        }
+        return result;
+    }
+
+    private long[] categoriesOf(Long productId) {
+        return categoryIdsByProduct.getOrDefault(productId, NO_CATEGORIES);
+    }
+
+    /**
+     * Running quantity and value totals for one aggregation bucket.
+     */
+    public static final class Totals {
+
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal value = BigDecimal.ZERO;
+
+        void add(BigDecimal quantity, BigDecimal value) {
+            if (quantity != null) {
+                this.quantity = this.quantity.add(quantity);
+            }
+            if (value != null) {
+                this.value = this.value.add(value);
+            }
+        }
+
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        public BigDecimal getValue() {
+            return value;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.example.cashewcorner.exception.ResourceNotFoundException;
 import com.example.cashewcorner.repository.CustomerRepository;
 import com.example.cashewcorner.repository.SalesOrderRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -116,6 +117,19 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<CustomerDto> getCustomersPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching customer page - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(customerRepository.findActivePage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, Customer::getCustomerId, this::mapToDto);
+    }
+
     @Transactional(readOnly = true)
     public CustomerDto getCustomerById(Long customerId) {
         log.info("Fetching customer - [customerId={}]", customerId);
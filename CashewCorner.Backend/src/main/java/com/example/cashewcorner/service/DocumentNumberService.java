@@ -0,0 +1,130 @@
+package com.example.cashewcorner.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Year;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Allocates document numbers (SO/PO) from the document_sequences table.
+ * Each node reserves a block of numbers per (prefix, year) with one atomic statement and
+ * hands them out from memory, so order creation needs no MAX scan and two nodes or
+ * threads never get the same number. Numbers left in a block when the process stops are
+ * skipped, so numbering can have gaps.
+ * <p>
+ * A refill runs outside the caller's transaction in autocommit, so the sequence row is
+ * locked for one statement only. It still takes a pool connection of its own, so callers
+ * should take their numbers before opening the order transaction.
+ */
+@Slf4j
+@Service
+public class DocumentNumberService {
+
+    // LAST_INSERT_ID(expr) remembers the new value for this connection, so the reserved
+    // block is read back without locking the row across statements
+    private static final String RESERVE_SQL =
+            "UPDATE document_sequences SET next_value = LAST_INSERT_ID(next_value + ?) " +
+            "WHERE prefix = ? AND seq_year = ?";
+
+    private static final String SEED_SQL =
+            "INSERT INTO document_sequences (prefix, seq_year, next_value) VALUES (?, ?, LAST_INSERT_ID(?)) " +
+            "ON DUPLICATE KEY UPDATE next_value = LAST_INSERT_ID(next_value + ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate autocommit;
+    private final int blockSize;
+    private final Map<String, NumberBlock> blocks = new ConcurrentHashMap<>();
+
+    public DocumentNumberService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${orders.number-block-size:20}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.autocommit = new TransactionTemplate(transactionManager);
+        this.autocommit.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Next document number for the prefix in the current year, e.g. SO20260042.
+     *
+     * @param prefix       the document prefix (SO, PO)
+     * @param highestInUse returns the highest number already used in a year (0 if none);
+     *                     only called when that year's sequence row does not exist yet
+     * @return the document number
+     */
+    public String nextNumber(String prefix, IntToLongFunction highestInUse) {
+        int year = Year.now().getValue();
+        NumberBlock block = blocks.computeIfAbsent(prefix + ":" + year, key -> new NumberBlock());
+
+        long value;
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                long limit = allocateBlock(prefix, year, highestInUse);
+                block.next = limit - blockSize;
+                block.limit = limit;
+            }
+            value = block.next++;
+        }
+        return String.format("%s%d%04d", prefix, year, value);
+    }
+
+    /**
+     * Reserve the next block for (prefix, year) and return the number after it.
+     */
+    private long allocateBlock(String prefix, int year, IntToLongFunction highestInUse) {
+        Long limit = reserve(RESERVE_SQL, blockSize, prefix, year);
+        if (limit == null) {
+            // First allocation for the year: continue after any numbers issued before the table existed.
+            // A node seeding concurrently turns this insert into a plain reservation.
+            long seed = highestInUse.applyAsLong(year) + 1;
+            limit = reserve(SEED_SQL, prefix, year, seed + blockSize, blockSize);
+        }
+        log.debug("Allocated document number block - [prefix={}, year={}, start={}, size={}]",
+                prefix, year, limit - blockSize, blockSize);
+        return limit;
+    }
+
+    /**
+     * Run one reserving statement in autocommit and read back its LAST_INSERT_ID on the
+     * same connection.
+     *
+     * @return the new next_value, or null when no sequence row matched
+     */
+    private Long reserve(String sql, Object... args) {
+        return autocommit.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                if (statement.executeUpdate() == 0) {
+                    return null;
+                }
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }));
+    }
+
+    /**
+     * Numbers [next, limit) reserved by this node for one (prefix, year).
+     */
+    private static final class NumberBlock {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cashewcorner.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node revocation store backed by a concurrent map of token id -> expiry.
+ * Expired entries are dropped by a periodic sweep, so the map only ever holds
+ * tokens that could still be presented. Revocations are lost on restart.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        revoked.merge(tokenId, expiresAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Instant expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${security.revocation.sweep-interval-ms:300000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int purged = before - revoked.size();
+        if (purged > 0) {
+            log.debug("Purged expired token revocations - [purged={}, remaining={}]", purged, revoked.size());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cashewcorner.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside a transaction that changed inventory quantities (or a product's
+ * reorder level, name, cost...). Listeners act on it after commit and re-read the
+ * affected products' inventory rows, so the event itself carries no quantities.
+ */
+public final class InventoryChangedEvent {
+
+    private final Set<Long> productIds;
+
+    public InventoryChangedEvent(Collection<Long> productIds) {
+        this.productIds = Set.copyOf(productIds);
+    }
+
+    public static InventoryChangedEvent of(Long productId) {
+        return new InventoryChangedEvent(Set.of(productId));
+    }
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+}
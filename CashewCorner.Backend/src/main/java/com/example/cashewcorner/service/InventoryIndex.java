@@ -0,0 +1,306 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.entity.Inventory;
+import com.example.cashewcorner.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * In-process copy of the inventory table for the polled views (low stock, stock on hand,
+ * summaries). Rows are kept in a skip list keyed by (productId, location) and in a second
+ * skip list ordered by stock-to-reorder ratio, so the low-stock list is a head set of the
+ * latter instead of a join over the whole table.
+ * <p>
+ * The index is loaded once the application is ready and rebuilt on an interval (to pick
+ * up changes made outside the application). In between, every write path publishes an
+ * {@link InventoryChangedEvent}; after commit the affected products are queued and their
+ * rows re-read on the single inventoryIndexExecutor thread, so the committing request
+ * neither waits for the read nor takes a second connection. Refreshes run one at a time
+ * and always re-read committed state, so the last one to run wins; the rows are read
+ * outside writeLock, which is held only to swap them in. Until the first load
+ * completes, reads fall back to the database.
+ */
+@Slf4j
+@Component
+public class InventoryIndex {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryStreamService inventoryStreamService;
+    private final TaskExecutor indexExecutor;
+    private final Object writeLock = new Object();
+    private final Set<Long> pendingProductIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Rows rows = new Rows();
+    private volatile boolean ready;
+
+    /**
+     * Products refreshed while a rebuild was loading; re-applied on top of it. Guarded by writeLock.
+     */
+    private Set<Long> refreshedDuringRebuild;
+
+    public InventoryIndex(InventoryRepository inventoryRepository,
+                          InventoryStreamService inventoryStreamService,
+                          @Qualifier("inventoryIndexExecutor") TaskExecutor indexExecutor) {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryStreamService = inventoryStreamService;
+        this.indexExecutor = indexExecutor;
+    }
+
+    /**
+     * Rows with quantity on hand at or below the product's reorder level, lowest ratio first.
+     */
+    public List<InventorySnapshot> getLowStock() {
+        if (!ready) {
+            return snapshots(inventoryRepository.findLowStockItems());
+        }
+        return new ArrayList<>(rows.byStockRatio.headSet(InventorySnapshot.LOW_STOCK_BOUND, false));
+    }
+
+    /**
+     * All rows, by product id and location.
+     */
+    public List<InventorySnapshot> getAll() {
+        if (!ready) {
+            return snapshots(inventoryRepository.findAll());
+        }
+        return new ArrayList<>(rows.byLocation.values());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Queue the products a committed transaction changed for a refresh; their rows are
+     * re-read on the index executor and the ones whose quantities moved are pushed to the
+     * inventory stream.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        requestRefresh(event.getProductIds());
+    }
+
+    private void requestRefresh(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        pendingProductIds.addAll(productIds);
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            indexExecutor.execute(this::refreshPending);
+        } catch (TaskRejectedException e) {
+            // Left pending; the next change or the periodic rebuild picks it up
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Refresh everything queued so far, including products queued while it runs.
+     */
+    private void refreshPending() {
+        try {
+            while (!pendingProductIds.isEmpty()) {
+                // Taken before the read, so a commit queued after this point is read again
+                Set<Long> productIds = new HashSet<>(pendingProductIds);
+                pendingProductIds.removeAll(productIds);
+                try {
+                    inventoryStreamService.publish(refresh(productIds));
+                } catch (RuntimeException e) {
+                    // Kept pending for the next change or rebuild rather than retried in a loop
+                    pendingProductIds.addAll(productIds);
+                    log.warn("Inventory index refresh failed - [products={}, error={}]", productIds.size(), e.getMessage());
+                    return;
+                }
+            }
+        } finally {
+            refreshing.set(false);
+        }
+
+        // A change may have been queued between the last check and releasing the flag
+        if (!pendingProductIds.isEmpty()) {
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * Replace the rows of the given products with their current database state.
+     * Only runs on the index executor, so refreshes never overlap.
+     *
+     * @return the rows whose quantities changed (or that appeared)
+     */
+    private List<InventorySnapshot> refresh(Collection<Long> productIds) {
+        Map<Key, InventorySnapshot> fresh = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdsWithProduct(productIds)) {
+            InventorySnapshot snapshot = InventorySnapshot.of(inventory);
+            fresh.put(Key.of(snapshot), snapshot);
+        }
+
+        List<InventorySnapshot> changed = new ArrayList<>();
+        synchronized (writeLock) {
+            Rows current = rows;
+            for (Long productId : productIds) {
+                for (Key key : new ArrayList<>(current.byLocation
+                        .subMap(Key.first(productId), true, Key.first(productId + 1), false).keySet())) {
+                    if (!fresh.containsKey(key)) {
+                        current.remove(key);
+                    }
+                }
+            }
+            fresh.values().forEach(snapshot -> {
+                if (snapshot.quantitiesDiffer(current.put(snapshot))) {
+                    changed.add(snapshot);
+                }
+            });
+
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.addAll(productIds);
+            }
+        }
+        log.debug("Inventory index refreshed - [products={}, changedRows={}]", productIds.size(), changed.size());
+        return changed;
+    }
+
+    /**
+     * Reload every row and swap the result in. Runs once the application is ready and
+     * then on inventory.index.rebuild-interval-ms.
+     */
+    @Scheduled(fixedDelayString = "${inventory.index.rebuild-interval-ms:900000}",
+               initialDelayString = "${inventory.index.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        synchronized (writeLock) {
+            refreshedDuringRebuild = new HashSet<>();
+        }
+
+        Set<Long> refreshed;
+        Rows rebuilt = new Rows();
+        try {
+            for (Inventory inventory : inventoryRepository.findAllWithProduct()) {
+                rebuilt.put(InventorySnapshot.of(inventory));
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                refreshedDuringRebuild = null;
+            }
+            log.warn("Inventory index rebuild failed - [ready={}, error={}]", ready, e.getMessage());
+            return;
+        }
+
+        synchronized (writeLock) {
+            rows = rebuilt;
+            ready = true;
+            refreshed = refreshedDuringRebuild;
+            refreshedDuringRebuild = null;
+        }
+        // Those refreshes may be newer than the bulk load
+        requestRefresh(refreshed);
+
+        log.info("Inventory index rebuilt - [rows={}]", rebuilt.byLocation.size());
+    }
+
+    private static List<InventorySnapshot> snapshots(List<Inventory> inventory) {
+        return inventory.stream().map(InventorySnapshot::of).collect(Collectors.toList());
+    }
+
+    /**
+     * The two orderings of the same snapshots. Writers hold writeLock; readers don't lock.
+     */
+    private static final class Rows {
+
+        private final ConcurrentSkipListMap<Key, InventorySnapshot> byLocation = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListSet<InventorySnapshot> byStockRatio =
+                new ConcurrentSkipListSet<>(InventorySnapshot.BY_STOCK_RATIO);
+
+        /**
+         * @return the snapshot it replaced, or null
+         */
+        private InventorySnapshot put(InventorySnapshot snapshot) {
+            InventorySnapshot previous = byLocation.put(Key.of(snapshot), snapshot);
+            if (previous != null) {
+                byStockRatio.remove(previous);
+            }
+            byStockRatio.add(snapshot);
+            return previous;
+        }
+
+        private void remove(Key key) {
+            InventorySnapshot previous = byLocation.remove(key);
+            if (previous != null) {
+                byStockRatio.remove(previous);
+            }
+        }
+    }
+
+    /**
+     * (productId, location) key; the null location sorts as the empty string.
+     */
+    private static final class Key implements Comparable<Key> {
+
+        private final long productId;
+        private final String location;
+
+        private Key(long productId, String location) {
+            this.productId = productId;
+            this.location = location;
+        }
+
+        private static Key of(InventorySnapshot snapshot) {
+            return new Key(snapshot.getProductId(), snapshot.getLocationKey());
+        }
+
+        /**
+         * Lowest possible key for the product.
+         */
+        private static Key first(long productId) {
+            return new Key(productId, "");
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byProduct = Long.compare(productId, other.productId);
+            return byProduct != 0 ? byProduct : location.compareTo(other.location);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && productId == other.productId && location.equals(other.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(productId) * 31 + location.hashCode();
+        }
+    }
+}
@@ -9,12 +9,23 @@ import com.example.cashewcorner.repository.InventoryRepository;
 import com.example.cashewcorner.repository.ProductRepository;
 import com.example.cashewcorner.repository.StockMovementRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,18 +33,42 @@ import java.util.stream.Collectors;
 @Transactional
 public class InventoryService {
 
+    /**
+     * The upsert of InventoryRepository.receive, for JDBC batches.
+     */
+    private static final String RECEIVE_SQL =
+            "INSERT INTO inventory (product_id, location, quantity_on_hand, reserved_quantity, last_updated) " +
+            "VALUES (?, ?, ?, 0, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity_on_hand = quantity_on_hand + VALUES(quantity_on_hand), " +
+            "last_updated = VALUES(last_updated)";
+
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final StockMovementRepository stockMovementRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryIndex inventoryIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public InventoryService(InventoryRepository inventoryRepository,
                            ProductRepository productRepository,
-                           StockMovementRepository stockMovementRepository) {
+                           StockMovementRepository stockMovementRepository,
+                           JdbcTemplate jdbcTemplate,
+                           InventoryIndex inventoryIndex,
+                           ApplicationEventPublisher eventPublisher) {
         this.inventoryRepository = inventoryRepository;
         this.productRepository = productRepository;
         this.stockMovementRepository = stockMovementRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryIndex = inventoryIndex;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Receive stock at a location. The quantity is added by one upsert statement rather than
+     * read, added in Java and saved, so concurrent receipts of the same product and location
+     * are never lost; the row is then re-read for the balance recorded in the ledger, which
+     * is exact because this transaction holds the row lock until it commits.
+     */
     public InventoryDto receiveStock(ReceiveStockRequestDto request) {
         log.info("Receiving stock - [productId={}, quantity={}, location={}]", 
                 request.getProductId(), request.getQuantity(), request.getLocation());
@@ -41,20 +76,10 @@ public class InventoryService {
         Product product = productRepository.findByProductIdAndIsActiveTrue(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId()));
 
-        // Find or create inventory record
-        Inventory inventory = inventoryRepository
-                .findByProductProductIdAndLocation(request.getProductId(), request.getLocation())
-                .orElse(Inventory.builder()
-                        .product(product)
-                        .location(request.getLocation())
-                        .quantityOnHand(BigDecimal.ZERO)
-                        .reservedQuantity(BigDecimal.ZERO)
-                        .build());
-
-        // Update quantity
-        BigDecimal newQuantity = inventory.getQuantityOnHand().add(request.getQuantity());
-        inventory.setQuantityOnHand(newQuantity);
-        inventory = inventoryRepository.save(inventory);
+        inventoryRepository.receive(request.getProductId(), request.getLocation(), request.getQuantity(),
+                LocalDateTime.now());
+        Inventory inventory = findInventory(request.getProductId(), request.getLocation());
+        BigDecimal newQuantity = inventory.getQuantityOnHand();
 
         // Record stock movement
         StockMovement movement = StockMovement.builder()
@@ -67,6 +92,7 @@ public class InventoryService {
                 .notes(request.getNotes())
                 .build();
         stockMovementRepository.save(movement);
+        eventPublisher.publishEvent(InventoryChangedEvent.of(request.getProductId()));
 
         log.info("Stock received successfully - [productId={}, newQuantity={}]", 
                 request.getProductId(), newQuantity);
@@ -74,36 +100,107 @@ public class InventoryService {
         return mapToDto(inventory);
     }
 
+    /**
+     * Receive many lines in one transaction, e.g. a whole purchase order delivery.
+     * Quantities are summed per product and location and applied with one JDBC batch of
+     * the receive upsert (which leaves the caller's managed entities alone). The upserts run
+     * in (product, location) order whatever the order of the lines, so two deliveries
+     * touching the same rows lock them in the same order and cannot deadlock; the touched
+     * rows are read back with one IN query, and one RECEIVE movement per line is
+     * batch-inserted, its balance running in line order.
+     *
+     * @param requests lines to receive
+     * @param products the lines' products by id, already loaded by the caller
+     * @return the recorded movements, in line order
+     */
+    public List<StockMovement> receiveStockBatch(List<ReceiveStockRequestDto> requests, Map<Long, Product> products) {
+        log.info("Receiving stock batch - [lines={}]", requests.size());
+
+        // Sorted by inventory key, i.e. by product id and then location
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        Map<String, ReceiveStockRequestDto> firstLines = new HashMap<>();
+        for (ReceiveStockRequestDto request : requests) {
+            String key = inventoryKey(request.getProductId(), request.getLocation());
+            totals.merge(key, request.getQuantity(), BigDecimal::add);
+            firstLines.putIfAbsent(key, request);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> upserts = new ArrayList<>(totals.size());
+        totals.forEach((key, quantity) -> {
+            ReceiveStockRequestDto line = firstLines.get(key);
+            upserts.add(new Object[]{line.getProductId(), line.getLocation(), quantity, now});
+        });
+        jdbcTemplate.batchUpdate(RECEIVE_SQL, upserts);
+
+        // Opening balance per row = balance after the upsert minus what this batch added
+        Set<Long> productIds = requests.stream().map(ReceiveStockRequestDto::getProductId).collect(Collectors.toSet());
+        Set<String> locations = requests.stream().map(ReceiveStockRequestDto::getLocation).collect(Collectors.toSet());
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdsAndLocations(productIds, locations)) {
+            String key = inventoryKey(inventory.getProduct().getProductId(), inventory.getLocation());
+            BigDecimal added = totals.get(key);
+            if (added != null) {
+                balances.put(key, inventory.getQuantityOnHand().subtract(added));
+            }
+        }
+
+        List<StockMovement> movements = new ArrayList<>(requests.size());
+        for (ReceiveStockRequestDto request : requests) {
+            BigDecimal balance = balances.merge(inventoryKey(request.getProductId(), request.getLocation()),
+                    request.getQuantity(), BigDecimal::add);
+            movements.add(StockMovement.builder()
+                    .product(products.get(request.getProductId()))
+                    .movementType("RECEIVE")
+                    .relatedType(request.getPurchaseOrderId() != null ? "PURCHASE_ORDER" : null)
+                    .relatedId(request.getPurchaseOrderId())
+                    .quantity(request.getQuantity())
+                    .balanceAfter(balance)
+                    .notes(request.getNotes())
+                    .build());
+        }
+
+        List<StockMovement> saved = stockMovementRepository.saveAll(movements);
+        eventPublisher.publishEvent(new InventoryChangedEvent(productIds));
+        log.info("Stock batch received successfully - [lines={}, locations={}]", requests.size(), totals.size());
+        return saved;
+    }
+
+    /**
+     * Adjust stock at a location up or down, with the same single-statement update as
+     * receiveStock. A removal only succeeds if the quantity is on hand and not reserved
+     * for sales orders.
+     */
     public InventoryDto adjustStock(AdjustStockRequestDto request) {
         log.info("Adjusting stock - [productId={}, quantity={}, type={}]", 
                 request.getProductId(), request.getQuantity(), request.getAdjustmentType());
 
+        if (request.getQuantity().signum() <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+
         Product product = productRepository.findByProductIdAndIsActiveTrue(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId()));
 
-        Inventory inventory = inventoryRepository
-                .findByProductProductIdAndLocation(request.getProductId(), request.getLocation())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product " + request.getProductId() + " at location " + request.getLocation()));
-
-        BigDecimal newQuantity;
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
         String movementType;
 
         if ("ADD".equalsIgnoreCase(request.getAdjustmentType())) {
-            newQuantity = inventory.getQuantityOnHand().add(request.getQuantity());
+            updated = inventoryRepository.addOnHand(request.getProductId(), request.getLocation(), request.getQuantity(), now);
             movementType = "ADJUSTMENT_IN";
         } else if ("REMOVE".equalsIgnoreCase(request.getAdjustmentType())) {
-            newQuantity = inventory.getQuantityOnHand().subtract(request.getQuantity());
-            if (newQuantity.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalArgumentException("Insufficient stock. Available: " + inventory.getQuantityOnHand());
-            }
+            updated = inventoryRepository.removeOnHand(request.getProductId(), request.getLocation(), request.getQuantity(), now);
             movementType = "ADJUSTMENT_OUT";
         } else {
             throw new IllegalArgumentException("Invalid adjustment type. Use ADD or REMOVE");
         }
 
-        inventory.setQuantityOnHand(newQuantity);
-        inventory = inventoryRepository.save(inventory);
+        Inventory inventory = findInventory(request.getProductId(), request.getLocation());
+        if (updated == 0) {
+            throw new IllegalArgumentException("Insufficient stock. Available: " + inventory.getAvailableQuantity());
+        }
+        BigDecimal newQuantity = inventory.getQuantityOnHand();
 
         // Record stock movement
         StockMovement movement = StockMovement.builder()
@@ -114,6 +211,7 @@ public class InventoryService {
                 .notes(request.getNotes())
                 .build();
         stockMovementRepository.save(movement);
+        eventPublisher.publishEvent(InventoryChangedEvent.of(request.getProductId()));
 
         log.info("Stock adjusted successfully - [productId={}, newQuantity={}]", 
                 request.getProductId(), newQuantity);
@@ -129,19 +227,41 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<InventoryDto> getInventoryPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching inventory page - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(inventoryRepository.findPage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, Inventory::getInventoryId, this::mapToDto);
+    }
+
+    /**
+     * Rows with stock on hand, by product name; served from the inventory index.
+     */
     @Transactional(readOnly = true)
     public List<InventoryDto> getInventoryWithStock() {
         log.info("Fetching inventory with available stock");
-        return inventoryRepository.findAllWithStock().stream()
-                .map(this::mapToDto)
+        return inventoryIndex.getAll().stream()
+                .filter(InventorySnapshot::hasStock)
+                .sorted(Comparator.comparing(InventorySnapshot::getProductName,
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+                .map(this::mapSnapshotToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Rows at or below their product's reorder level, most depleted first; served from the inventory index.
+     */
     @Transactional(readOnly = true)
     public List<InventoryDto> getLowStockItems() {
         log.info("Fetching low stock items");
-        return inventoryRepository.findLowStockItems().stream()
-                .map(this::mapToDto)
+        return inventoryIndex.getLowStock().stream()
+                .map(this::mapSnapshotToDto)
                 .collect(Collectors.toList());
     }
 
@@ -178,21 +298,21 @@ public class InventoryService {
     public InventorySummaryDto getInventorySummary() {
         log.info("Generating inventory summary");
 
-        List<Inventory> allInventory = inventoryRepository.findAll();
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockItems();
+        List<InventorySnapshot> allInventory = inventoryIndex.getAll();
+        List<InventorySnapshot> lowStockItems = inventoryIndex.getLowStock();
 
         long totalProducts = allInventory.stream()
-                .map(inv -> inv.getProduct().getProductId())
+                .map(InventorySnapshot::getProductId)
                 .distinct()
                 .count();
 
         long locationsCount = allInventory.stream()
-                .map(Inventory::getLocation)
+                .map(InventorySnapshot::getLocation)
                 .distinct()
                 .count();
 
         BigDecimal totalValue = allInventory.stream()
-                .map(inv -> inv.getQuantityOnHand().multiply(inv.getProduct().getCostPrice()))
+                .map(InventorySnapshot::getStockValue)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         return InventorySummaryDto.builder()
@@ -218,6 +338,22 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated stock movement history, newest first, optionally for one product.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<StockMovementDto> getStockMovementsPage(Long productId, String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching stock movement page - [productId={}, cursorId={}, size={}]", productId, cursorId, pageSize);
+
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<StockMovement> rows = productId != null
+                ? stockMovementRepository.findPageByProduct(productId, cursorId, limit)
+                : stockMovementRepository.findPage(cursorId, limit);
+        return CursorPageDto.of(rows, pageSize, StockMovement::getMovementId, this::mapMovementToDto);
+    }
+
     @Transactional(readOnly = true)
     public List<StockMovementDto> searchStockMovements(String productName, String movementType, 
                                                         LocalDateTime startDate, LocalDateTime endDate) {
@@ -229,6 +365,20 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Key of an inventory row; case-insensitive like the location column's collation.
+     * The product id is zero-padded so keys sort by product id first.
+     */
+    private static String inventoryKey(Long productId, String location) {
+        return String.format("%019d|%s", productId, location.toLowerCase(Locale.ROOT));
+    }
+
+    private Inventory findInventory(Long productId, String location) {
+        return inventoryRepository.findByProductProductIdAndLocation(productId, location)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found for product " + productId + " at location " + location));
+    }
+
     private InventoryDto mapToDto(Inventory inventory) {
         return InventoryDto.builder()
                 .inventoryId(inventory.getInventoryId())
@@ -244,6 +394,21 @@ public class InventoryService {
                 .build();
     }
 
+    private InventoryDto mapSnapshotToDto(InventorySnapshot snapshot) {
+        return InventoryDto.builder()
+                .inventoryId(snapshot.getInventoryId())
+                .productId(snapshot.getProductId())
+                .productName(snapshot.getProductName())
+                .productSku(snapshot.getProductSku())
+                .location(snapshot.getLocation())
+                .quantityOnHand(snapshot.getQuantityOnHand())
+                .reservedQuantity(snapshot.getReservedQuantity())
+                .availableQuantity(snapshot.getAvailableQuantity())
+                .unit(snapshot.getUnit())
+                .lastUpdated(snapshot.getLastUpdated())
+                .build();
+    }
+
     private StockMovementDto mapMovementToDto(StockMovement movement) {
         return StockMovementDto.builder()
                 .movementId(movement.getMovementId())
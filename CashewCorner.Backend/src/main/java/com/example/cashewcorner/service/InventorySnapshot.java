@@ -0,0 +1,182 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.entity.Inventory;
+import com.example.cashewcorner.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Immutable copy of one inventory row with the product fields the inventory views need.
+ * Quantities are held as longs in ten-thousandths (the scale of the DECIMAL(18,4)
+ * columns), so comparisons and ratios need no BigDecimal arithmetic.
+ */
+public final class InventorySnapshot {
+
+    private static final int SCALE = 4;
+
+    /**
+     * Orders rows from the lowest stock-to-reorder ratio up; ties by product and location.
+     */
+    static final Comparator<InventorySnapshot> BY_STOCK_RATIO = Comparator
+            .comparingDouble(InventorySnapshot::getStockRatio)
+            .thenComparingLong(InventorySnapshot::getProductId)
+            .thenComparing(InventorySnapshot::getLocationKey);
+
+    /**
+     * Sentinel that sorts after every low-stock row and before every other one in BY_STOCK_RATIO.
+     */
+    static final InventorySnapshot LOW_STOCK_BOUND = new InventorySnapshot();
+
+    private final long inventoryId;
+    private final long productId;
+    private final String location;
+    private final long onHand;
+    private final long reserved;
+    private final long reorderLevel;
+    private final boolean hasReorderLevel;
+    private final double stockRatio;
+    private final String productName;
+    private final String productSku;
+    private final String unit;
+    private final BigDecimal costPrice;
+    private final LocalDateTime lastUpdated;
+
+    private InventorySnapshot(Inventory inventory) {
+        Product product = inventory.getProduct();
+        this.inventoryId = inventory.getInventoryId();
+        this.productId = product.getProductId();
+        this.location = inventory.getLocation();
+        this.onHand = toUnits(inventory.getQuantityOnHand());
+        this.reserved = toUnits(inventory.getReservedQuantity());
+        this.hasReorderLevel = product.getReorderLevel() != null;
+        this.reorderLevel = toUnits(product.getReorderLevel());
+        this.stockRatio = stockRatio(onHand, reorderLevel, hasReorderLevel);
+        this.productName = product.getName();
+        this.productSku = product.getSku();
+        this.unit = product.getUnit();
+        this.costPrice = product.getCostPrice();
+        this.lastUpdated = inventory.getLastUpdated();
+    }
+
+    /**
+     * Ratio 1 and the highest product id: see LOW_STOCK_BOUND.
+     */
+    private InventorySnapshot() {
+        this.inventoryId = Long.MAX_VALUE;
+        this.productId = Long.MAX_VALUE;
+        this.location = null;
+        this.onHand = 0L;
+        this.reserved = 0L;
+        this.reorderLevel = 0L;
+        this.hasReorderLevel = false;
+        this.stockRatio = 1.0;
+        this.productName = null;
+        this.productSku = null;
+        this.unit = null;
+        this.costPrice = null;
+        this.lastUpdated = null;
+    }
+
+    public static InventorySnapshot of(Inventory inventory) {
+        return new InventorySnapshot(inventory);
+    }
+
+    /**
+     * On hand divided by reorder level: at most 1 means low stock, matching
+     * quantityOnHand <= reorderLevel. Rows without a reorder level are never low.
+     */
+    private static double stockRatio(long onHand, long reorderLevel, boolean hasReorderLevel) {
+        if (!hasReorderLevel) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (reorderLevel <= 0) {
+            return onHand <= reorderLevel ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return (double) onHand / reorderLevel;
+    }
+
+    private static long toUnits(BigDecimal value) {
+        return value == null ? 0L : value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public boolean isLowStock() {
+        return hasReorderLevel && onHand <= reorderLevel;
+    }
+
+    public boolean hasStock() {
+        return onHand > 0;
+    }
+
+    public Long getInventoryId() {
+        return inventoryId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    String getLocationKey() {
+        return location != null ? location : "";
+    }
+
+    public BigDecimal getQuantityOnHand() {
+        return fromUnits(onHand);
+    }
+
+    public BigDecimal getReservedQuantity() {
+        return fromUnits(reserved);
+    }
+
+    public BigDecimal getAvailableQuantity() {
+        return fromUnits(onHand - reserved);
+    }
+
+    public BigDecimal getReorderLevel() {
+        return hasReorderLevel ? fromUnits(reorderLevel) : null;
+    }
+
+    public double getStockRatio() {
+        return stockRatio;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getProductSku() {
+        return productSku;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Value of the stock on hand at cost price.
+     */
+    public BigDecimal getStockValue() {
+        return costPrice != null ? getQuantityOnHand().multiply(costPrice) : BigDecimal.ZERO;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * True if the quantities differ from the other snapshot of the same row.
+     */
+    boolean quantitiesDiffer(InventorySnapshot other) {
+        return other == null || onHand != other.onHand || reserved != other.reserved;
+    }
+}
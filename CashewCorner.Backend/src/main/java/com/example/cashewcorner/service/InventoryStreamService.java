@@ -0,0 +1,269 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.dto.InventoryDeltaDto;
+import com.example.cashewcorner.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events fan-out of inventory changes.
+ * The inventory index hands over the rows a committed transaction changed; each row is
+ * offered to every subscriber's bounded queue and the queues are written out on the
+ * inventoryStreamExecutor, so publishing never waits on a client socket.
+ * <p>
+ * A write to a client that stopped reading blocks its drain thread. The executor grows
+ * to one thread per subscriber, so that never delays other subscribers, and a subscriber
+ * whose write has been blocked for inventory.stream.send-timeout-ms is dropped: it gets
+ * no more events and its stream is completed once the blocked write returns (the client
+ * reads again or the container's write timeout fails it). Until then it still holds its
+ * thread, so it keeps counting against inventory.stream.max-subscribers and the executor
+ * always has a thread for every subscriber it admits.
+ * <p>
+ * Events: "ready" once connected, "inventory" with an {@link InventoryDeltaDto} per
+ * changed row, and "resync" when a subscriber fell so far behind that its queue
+ * overflowed and was discarded; the client should then reload the full inventory.
+ */
+@Slf4j
+@Service
+public class InventoryStreamService {
+
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    private final TaskExecutor streamExecutor;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    /**
+     * Dropped subscribers whose drain thread may still be blocked in a write.
+     */
+    private final Set<Subscriber> stalled = ConcurrentHashMap.newKeySet();
+
+    public InventoryStreamService(@Qualifier("inventoryStreamExecutor") TaskExecutor streamExecutor,
+                                  @Value("${inventory.stream.buffer-size:256}") int bufferSize,
+                                  @Value("${inventory.stream.max-subscribers:200}") int maxSubscribers,
+                                  @Value("${inventory.stream.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${inventory.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.streamExecutor = streamExecutor;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    /**
+     * Open a stream for the caller. It ends after inventory.stream.timeout-ms; clients
+     * are expected to reconnect.
+     *
+     * @throws ServiceUnavailableException if inventory.stream.max-subscribers are connected,
+     *         counting dropped ones still blocked in a write
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() + stalled.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many inventory stream subscribers, please retry shortly");
+        }
+
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        subscriber.offer(new Event("ready", ""));
+        schedule(subscriber);
+        log.debug("Inventory stream subscribed - [subscribers={}]", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Queue the changed rows for every subscriber. Does not block.
+     */
+    public void publish(List<InventorySnapshot> changed) {
+        if (changed.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+        List<Event> events = changed.stream()
+                .map(snapshot -> new Event("inventory", toDelta(snapshot)))
+                .toList();
+        for (Subscriber subscriber : subscribers) {
+            events.forEach(subscriber::offer);
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Write a comment line to idle subscribers so dead connections are noticed and
+     * proxies don't close quiet ones.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Drop subscribers whose current write has been blocked longer than
+     * inventory.stream.send-timeout-ms. Their drain thread stays in the write until it
+     * returns or fails, then completes the stream and frees the subscriber's slot.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stream.send-timeout-ms:10000}")
+    public void dropStalledSubscribers() {
+        // Earlier drops whose drain finished just before they were marked no longer hold a thread
+        for (Subscriber subscriber : stalled) {
+            if (!subscriber.draining.get() && stalled.remove(subscriber)) {
+                subscriber.emitter.complete();
+            }
+        }
+
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendStarted = subscriber.sendStartedNanos;
+            if (sendStarted != 0 && now - sendStarted > sendTimeoutNanos && subscribers.remove(subscriber)) {
+                stalled.add(subscriber);
+                subscriber.queue.clear();
+                log.info("Inventory stream subscriber dropped, write stalled - [stalledMs={}]",
+                        TimeUnit.NANOSECONDS.toMillis(now - sendStarted));
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Emitter for a new subscriber; overridden in tests to stand in for a client.
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException e) {
+            // Left queued; the next publish or heartbeat retries
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resync) {
+                subscriber.resync = false;
+                send(subscriber, SseEmitter.event().name("resync").data(""));
+            }
+            Event event;
+            while ((event = subscriber.queue.poll()) != null) {
+                send(subscriber, event == HEARTBEAT
+                        ? SseEmitter.event().comment("heartbeat")
+                        : SseEmitter.event().name(event.name).data(event.data, MediaType.APPLICATION_JSON));
+            }
+            if (!subscribers.contains(subscriber)) {
+                // Dropped as stalled while a write was blocked
+                subscriber.emitter.complete();
+                return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            log.debug("Inventory stream subscriber dropped - [error={}]", e.getMessage());
+            return;
+        } finally {
+            // Whatever the outcome, this thread is no longer blocked on the subscriber
+            stalled.remove(subscriber);
+            subscriber.draining.set(false);
+        }
+
+        // An offer may have landed between the last poll and releasing the flag
+        if (subscribers.contains(subscriber) && (!subscriber.queue.isEmpty() || subscriber.resync)) {
+            schedule(subscriber);
+        }
+    }
+
+    private static void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendStartedNanos = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendStartedNanos = 0;
+        }
+    }
+
+    private static InventoryDeltaDto toDelta(InventorySnapshot snapshot) {
+        return InventoryDeltaDto.builder()
+                .inventoryId(snapshot.getInventoryId())
+                .productId(snapshot.getProductId())
+                .location(snapshot.getLocation())
+                .quantityOnHand(snapshot.getQuantityOnHand())
+                .reservedQuantity(snapshot.getReservedQuantity())
+                .availableQuantity(snapshot.getAvailableQuantity())
+                .lowStock(snapshot.isLowStock())
+                .lastUpdated(snapshot.getLastUpdated())
+                .build();
+    }
+
+    /**
+     * Named SSE event; the payload is serialized when it is written.
+     */
+    private static final class Event {
+
+        private final String name;
+        private final Object data;
+
+        private Event(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resync;
+        // System.nanoTime() when the write in progress started, 0 when not writing
+        private volatile long sendStartedNanos;
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Queue the event; on overflow drop the backlog and tell the client to reload instead.
+         */
+        private void offer(Event event) {
+            if (!queue.offer(event)) {
+                queue.clear();
+                resync = true;
+            }
+        }
+    }
+}
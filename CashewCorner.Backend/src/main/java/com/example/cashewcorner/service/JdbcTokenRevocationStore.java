@@ -0,0 +1,51 @@
+package com.example.cashewcorner.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Revocation store backed by the revoked_tokens table, so every backend node sees
+ * a logout. Lookups are primary-key reads; expired rows are deleted periodically.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.revocation.store", havingValue = "jdbc")
+public class JdbcTokenRevocationStore implements TokenRevocationStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTokenRevocationStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token_id, expires_at) VALUES (?, ?) " +
+                            "ON DUPLICATE KEY UPDATE expires_at = GREATEST(expires_at, VALUES(expires_at))",
+                tokenId, Timestamp.from(expiresAt));
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM revoked_tokens WHERE token_id = ? AND expires_at > ?",
+                Integer.class, tokenId, Timestamp.from(Instant.now()));
+        return count != null && count > 0;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${security.revocation.sweep-interval-ms:300000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= ?",
+                Timestamp.from(Instant.now()));
+        if (purged > 0) {
+            log.debug("Purged expired token revocations - [purged={}]", purged);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * In-memory sliding-window throttle for failed logins, per email and per client IP.
+ * Each key keeps the timestamps of its failures within the window; once a key reaches
+ * its limit further attempts are refused with 429 until the oldest failure ages out,
+ * before any password hashing is done. Keys expire after a quiet window and the
+ * number of tracked keys is bounded, so memory stays flat under spraying.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, SlidingWindow> windows;
+    private final long windowMillis;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+
+    public LoginThrottle(@Value("${security.login-throttle.window-seconds:900}") long windowSeconds,
+                         @Value("${security.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                         @Value("${security.login-throttle.max-failures-per-ip:20}") int maxFailuresPerIp,
+                         @Value("${security.login-throttle.maximum-keys:100000}") long maximumKeys) {
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    /**
+     * Refuse the attempt if the email or the client IP is over its failure limit.
+     *
+     * @throws TooManyRequestsException if either key is throttled
+     */
+    public void checkAllowed(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        check(emailKey(email), maxFailuresPerEmail, now);
+        if (clientIp != null) {
+            check(ipKey(clientIp), maxFailuresPerIp, now);
+        }
+    }
+
+    /**
+     * Record a failed attempt against the email and the client IP.
+     */
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        windows.get(emailKey(email), k -> new SlidingWindow()).add(now, windowMillis);
+        if (clientIp != null) {
+            windows.get(ipKey(clientIp), k -> new SlidingWindow()).add(now, windowMillis);
+        }
+    }
+
+    /**
+     * Forget the failures of an email after a successful login.
+     */
+    public void recordSuccess(String email) {
+        windows.invalidate(emailKey(email));
+    }
+
+    private void check(String key, int limit, long now) {
+        SlidingWindow window = windows.getIfPresent(key);
+        if (window == null) {
+            return;
+        }
+        long retryAfterMillis = window.retryAfter(now, windowMillis, limit);
+        if (retryAfterMillis > 0) {
+            log.warn("Login throttled - [key={}, retryAfterMs={}]", key, retryAfterMillis);
+            throw new TooManyRequestsException("Too many failed login attempts, please try again later",
+                    Math.max(1, (retryAfterMillis + 999) / 1000));
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    /**
+     * Failure timestamps of one key within the window, oldest first.
+     */
+    private static final class SlidingWindow {
+
+        private final Deque<Long> failures = new ArrayDeque<>();
+
+        synchronized void add(long now, long windowMillis) {
+            evict(now, windowMillis);
+            failures.addLast(now);
+        }
+
+        /**
+         * Milliseconds until the key drops below the limit, or 0 if it already is.
+         */
+        synchronized long retryAfter(long now, long windowMillis, int limit) {
+            evict(now, windowMillis);
+            if (failures.size() < limit) {
+                return 0;
+            }
+            // The window frees up once enough of the oldest failures age out
+            long unlockAt = failures.stream().skip(failures.size() - limit).findFirst().orElse(now) + windowMillis;
+            return Math.max(0, unlockAt - now);
+        }
+
+        private void evict(long now, long windowMillis) {
+            while (!failures.isEmpty() && failures.peekFirst() <= now - windowMillis) {
+                failures.pollFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.dto.RollupRebuildResultDto;
+import com.example.cashewcorner.entity.MonthlyProductRollup;
+import com.example.cashewcorner.entity.PurchaseOrder;
+import com.example.cashewcorner.entity.PurchaseOrderItem;
+import com.example.cashewcorner.entity.SalesOrder;
+import com.example.cashewcorner.entity.SalesOrderItem;
+import com.example.cashewcorner.repository.MonthlyProductRollupRepository;
+import com.example.cashewcorner.repository.projection.YearLineCountProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the monthly_product_rollups table.
+ * Order creation adds its contribution inside the caller's transaction, so the
+ * rollup commits or rolls back together with the order. The rebuild recomputes
+ * whole years from the order item tables for historical data or drift repair; on
+ * startup every year whose line counts disagree with the item tables is rebuilt,
+ * so history from before the rollup existed is filled in without a manual call.
+ */
+@Slf4j
+@Service
+@Transactional
+public class MonthlyRollupService {
+
+    private final MonthlyProductRollupRepository rollupRepository;
+    private final ReportResultCache reportResultCache;
+    private final TransactionTemplate yearTransaction;
+    private final boolean backfillOnStartup;
+
+    public MonthlyRollupService(MonthlyProductRollupRepository rollupRepository,
+                                ReportResultCache reportResultCache,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${reports.rollups.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.rollupRepository = rollupRepository;
+        this.reportResultCache = reportResultCache;
+        this.yearTransaction = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSalesOrder(SalesOrder order) {
+        recordSalesOrders(List.of(order));
+    }
+
+    /**
+     * Add the contributions of several sales orders saved in the caller's transaction.
+     * Rows are upserted in (year, month, product) order whatever the order of the lines,
+     * so concurrent transactions lock rollup rows in the same order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSalesOrders(Collection<SalesOrder> orders) {
+        Map<RollupKey, Contribution> contributions = new TreeMap<>();
+        for (SalesOrder order : orders) {
+            LocalDateTime timestamp = timestampOf(order.getCreatedAt());
+            for (SalesOrderItem item : order.getItems()) {
+                contributions.computeIfAbsent(RollupKey.of(timestamp, item.getProduct().getProductId()),
+                        key -> new Contribution()).add(item.getQuantity(), item.getUnitPrice());
+            }
+        }
+        apply(MonthlyProductRollup.TYPE_SALES, contributions)
+                .forEach(year -> reportResultCache.evictYear(ReportResultCache.DOMAIN_SALES, year));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPurchaseOrder(PurchaseOrder order) {
+        recordPurchaseOrders(List.of(order));
+    }
+
+    /**
+     * Add the contributions of several purchase orders saved in the caller's transaction,
+     * upserted in the same fixed order as {@link #recordSalesOrders}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPurchaseOrders(Collection<PurchaseOrder> orders) {
+        Map<RollupKey, Contribution> contributions = new TreeMap<>();
+        for (PurchaseOrder order : orders) {
+            LocalDateTime timestamp = timestampOf(order.getCreatedAt());
+            for (PurchaseOrderItem item : order.getItems()) {
+                contributions.computeIfAbsent(RollupKey.of(timestamp, item.getProduct().getProductId()),
+                        key -> new Contribution()).add(item.getQuantity(), item.getUnitPrice());
+            }
+        }
+        apply(MonthlyProductRollup.TYPE_PURCHASE, contributions)
+                .forEach(year -> reportResultCache.evictYear(ReportResultCache.DOMAIN_PURCHASES, year));
+    }
+
+    /**
+     * Recompute the rollup rows for every year in the given range from the order items.
+     * Each year is rebuilt and committed in its own transaction.
+     *
+     * @param fromYear first year to rebuild (inclusive)
+     * @param toYear last year to rebuild (inclusive)
+     * @return number of rows written per type
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RollupRebuildResultDto rebuildYears(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear");
+        }
+        log.info("Rebuilding monthly rollups - [fromYear={}, toYear={}]", fromYear, toYear);
+
+        int salesRows = 0;
+        int purchaseRows = 0;
+        for (int year = fromYear; year <= toYear; year++) {
+            int[] rows = rebuildYear(year);
+            salesRows += rows[0];
+            purchaseRows += rows[1];
+        }
+
+        log.info("Monthly rollups rebuilt - [fromYear={}, toYear={}, salesRows={}, purchaseRows={}]",
+                fromYear, toYear, salesRows, purchaseRows);
+
+        return RollupRebuildResultDto.builder()
+                .fromYear(fromYear)
+                .toYear(toYear)
+                .salesRows(salesRows)
+                .purchaseRows(purchaseRows)
+                .build();
+    }
+
+    /**
+     * Rebuild every year whose rolled-up line counts differ from the order item tables:
+     * years from before the rollup existed, a deploy year that is only partly rolled up,
+     * or years changed outside the application. Disabled with
+     * reports.rollups.backfill-on-startup=false.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        SortedSet<Integer> years = new TreeSet<>();
+        years.addAll(yearsOutOfStep(rollupRepository.countSalesLinesByYear(),
+                rollupRepository.countRolledUpLinesByYear(MonthlyProductRollup.TYPE_SALES)));
+        years.addAll(yearsOutOfStep(rollupRepository.countPurchaseLinesByYear(),
+                rollupRepository.countRolledUpLinesByYear(MonthlyProductRollup.TYPE_PURCHASE)));
+        if (years.isEmpty()) {
+            log.info("Monthly rollups up to date");
+            return;
+        }
+
+        log.info("Backfilling monthly rollups - [years={}]", years);
+        for (Integer year : years) {
+            try {
+                rebuildYear(year);
+            } catch (RuntimeException e) {
+                // e.g. another node rebuilding the same year; the next startup or a manual rebuild retries
+                log.warn("Monthly rollup backfill failed - [year={}, error={}]", year, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete and recompute one year in its own transaction.
+     *
+     * @return rows written for sales and purchases
+     */
+    private int[] rebuildYear(int year) {
+        LocalDateTime start = LocalDateTime.of(year, 1, 1, 0, 0);
+        LocalDateTime end = start.plusYears(1);
+
+        int[] rows = yearTransaction.execute(status -> {
+            rollupRepository.deleteByYear(year);
+            int salesRows = rollupRepository.rebuildSalesForYear(year, start, end);
+            int purchaseRows = rollupRepository.rebuildPurchasesForYear(year, start, end);
+
+            reportResultCache.evictYear(ReportResultCache.DOMAIN_SALES, year);
+            reportResultCache.evictYear(ReportResultCache.DOMAIN_PURCHASES, year);
+            return new int[] {salesRows, purchaseRows};
+        });
+        log.debug("Monthly rollup year rebuilt - [year={}, salesRows={}, purchaseRows={}]", year, rows[0], rows[1]);
+        return rows;
+    }
+
+    /**
+     * Years whose item line count differs from the rolled-up line count, in either direction.
+     */
+    private static SortedSet<Integer> yearsOutOfStep(List<YearLineCountProjection> itemLines,
+                                                     List<YearLineCountProjection> rolledUpLines) {
+        Map<Integer, Long> expected = new HashMap<>();
+        itemLines.forEach(row -> expected.put(row.getYear(), row.getLineCount()));
+        Map<Integer, Long> actual = new HashMap<>();
+        rolledUpLines.forEach(row -> actual.put(row.getYear(), row.getLineCount()));
+
+        SortedSet<Integer> years = new TreeSet<>();
+        expected.forEach((year, count) -> {
+            if (!Objects.equals(count, actual.get(year))) {
+                years.add(year);
+            }
+        });
+        actual.keySet().stream().filter(year -> !expected.containsKey(year)).forEach(years::add);
+        return years;
+    }
+
+    private static LocalDateTime timestampOf(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt : LocalDateTime.now();
+    }
+
+    /**
+     * @return the years touched
+     */
+    private Set<Integer> apply(String type, Map<RollupKey, Contribution> contributions) {
+        Set<Integer> years = new TreeSet<>();
+        contributions.forEach((key, c) -> {
+            rollupRepository.upsertOrderContribution(
+                    type, key.productId, key.year, key.month, c.quantity, c.value,
+                    c.minPrice, c.maxPrice, c.priceSum, c.lineCount);
+            years.add(key.year);
+        });
+        return years;
+    }
+
+    /**
+     * A rollup row of one type, ordered by year, month and product.
+     */
+    private static final class RollupKey implements Comparable<RollupKey> {
+
+        private final int year;
+        private final int month;
+        private final long productId;
+
+        private RollupKey(int year, int month, long productId) {
+            this.year = year;
+            this.month = month;
+            this.productId = productId;
+        }
+
+        private static RollupKey of(LocalDateTime timestamp, long productId) {
+            return new RollupKey(timestamp.getYear(), timestamp.getMonthValue(), productId);
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            int byYear = Integer.compare(year, other.year);
+            if (byYear != 0) {
+                return byYear;
+            }
+            int byMonth = Integer.compare(month, other.month);
+            return byMonth != 0 ? byMonth : Long.compare(productId, other.productId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RollupKey other && compareTo(other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return (year * 31 + month) * 31 + Long.hashCode(productId);
+        }
+    }
+
+    /**
+     * Line totals for one product in one month.
+     */
+    private static final class Contribution {
+
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal value = BigDecimal.ZERO;
+        private BigDecimal priceSum = BigDecimal.ZERO;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private long lineCount;
+
+        void add(BigDecimal lineQuantity, BigDecimal unitPrice) {
+            BigDecimal price = unitPrice != null ? unitPrice : BigDecimal.ZERO;
+            quantity = quantity.add(lineQuantity);
+            value = value.add(lineQuantity.multiply(price));
+            priceSum = priceSum.add(price);
+            minPrice = minPrice == null || price.compareTo(minPrice) < 0 ? price : minPrice;
+            maxPrice = maxPrice == null || price.compareTo(maxPrice) > 0 ? price : maxPrice;
+            lineCount++;
+        }
+    }
+}
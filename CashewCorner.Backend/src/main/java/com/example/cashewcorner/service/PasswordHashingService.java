@@ -0,0 +1,99 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hashing on the bounded passwordHashingExecutor.
+ * The calling request thread waits for the result; when the hashing queue is full
+ * or the wait times out the caller gets a 503 instead of adding to the CPU backlog.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final AsyncTaskExecutor hashingExecutor;
+    private final long timeoutMs;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashingExecutor") AsyncTaskExecutor hashingExecutor,
+                                  @Value("${security.password.hashing.timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Verify a raw password against a stored hash.
+     *
+     * @param rawPassword  the password as entered
+     * @param passwordHash the stored hash
+     * @return true if the password matches
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * Hash a raw password with the configured cost.
+     *
+     * @param rawPassword the password to hash
+     * @return the hash
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Whether a stored hash was made with a lower cost than currently configured.
+     *
+     * @param passwordHash the stored hash
+     * @return true if the hash should be recomputed
+     */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            log.warn("Password hashing rejected, queue is full");
+            throw new ServiceUnavailableException("Too many concurrent sign-ins, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing timed out - [timeoutMs={}]", timeoutMs);
+            throw new ServiceUnavailableException("Too many concurrent sign-ins, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Password check interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.cashewcorner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of username -> authenticated principal.
+ * Lets the JWT filter authorize requests without a user/role lookup per call. User
+ * changes that affect authorization (role, active flag) invalidate the entry once
+ * their transaction has committed; the TTL bounds staleness for anything else.
+ * Hit/miss counters are published to Micrometer as cache.gets{cache=principals}.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, AuthenticatedPrincipal> cache;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    /**
+     * Return the cached principal for the username, loading and caching it on a miss.
+     * Exceptions from the loader propagate and nothing is cached.
+     */
+    public AuthenticatedPrincipal get(String username, Function<String, AuthenticatedPrincipal> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * Drop the cached principal for the username, after the current transaction commits.
+     */
+    public void invalidate(String username) {
+        log.debug("Invalidating cached principal - [username={}]", username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        } else {
+            cache.invalidate(username);
+        }
+    }
+}
@@ -19,9 +19,12 @@ import java.util.stream.Collectors;
 public class ProductCategoryService {
 
     private final ProductCategoryRepository categoryRepository;
+    private final ReportResultCache reportResultCache;
 
-    public ProductCategoryService(ProductCategoryRepository categoryRepository) {
+    public ProductCategoryService(ProductCategoryRepository categoryRepository,
+                                  ReportResultCache reportResultCache) {
         this.categoryRepository = categoryRepository;
+        this.reportResultCache = reportResultCache;
     }
 
     public ProductCategoryDto createCategory(CreateProductCategoryRequestDto request) {
@@ -39,6 +42,7 @@ public class ProductCategoryService {
                 .build();
 
         category = categoryRepository.save(category);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_CATEGORIES);
         log.info("Category created successfully - [categoryId={}, name={}]", 
                 category.getCategoryId(), category.getName());
 
@@ -65,6 +69,7 @@ public class ProductCategoryService {
         }
 
         category = categoryRepository.save(category);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_CATEGORIES);
         log.info("Category updated successfully - [categoryId={}]", categoryId);
 
         return mapToDto(category);
@@ -78,6 +83,7 @@ public class ProductCategoryService {
 
         category.setIsActive(false);
         categoryRepository.save(category);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_CATEGORIES);
 
         log.info("Category deleted successfully - [categoryId={}]", categoryId);
     }
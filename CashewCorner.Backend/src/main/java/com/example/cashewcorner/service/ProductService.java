@@ -8,6 +8,7 @@ import com.example.cashewcorner.exception.ResourceNotFoundException;
 import com.example.cashewcorner.repository.ProductCategoryRepository;
 import com.example.cashewcorner.repository.ProductRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +22,17 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductCategoryRepository categoryRepository;
+    private final ReportResultCache reportResultCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductService(ProductRepository productRepository,
-                         ProductCategoryRepository categoryRepository) {
+                         ProductCategoryRepository categoryRepository,
+                         ReportResultCache reportResultCache,
+                         ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.reportResultCache = reportResultCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public ProductDto createProduct(CreateProductRequestDto request) {
@@ -79,6 +86,9 @@ public class ProductService {
         }
 
         product = productRepository.save(product);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_PRODUCTS);
+        // Name, unit, cost and reorder level are copied into the inventory index
+        eventPublisher.publishEvent(InventoryChangedEvent.of(productId));
         log.info("Product updated successfully - [productId={}]", productId);
 
         return mapToDto(product);
@@ -92,6 +102,7 @@ public class ProductService {
 
         product.setIsActive(false);
         productRepository.save(product);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_PRODUCTS);
 
         log.info("Product deleted successfully - [productId={}]", productId);
     }
@@ -145,6 +156,7 @@ public class ProductService {
 
         product.addCategory(category);
         product = productRepository.save(product);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_CATEGORIES);
 
         log.info("Category assigned successfully - [productId={}, categoryId={}]", 
                 productId, request.getCategoryId());
@@ -163,6 +175,7 @@ public class ProductService {
 
         product.removeCategory(category);
         product = productRepository.save(product);
+        reportResultCache.evictDomain(ReportResultCache.DOMAIN_CATEGORIES);
 
         log.info("Category removed successfully - [productId={}, categoryId={}]", productId, categoryId);
 
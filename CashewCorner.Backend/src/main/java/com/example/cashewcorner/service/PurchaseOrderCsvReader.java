@@ -0,0 +1,169 @@
+package com.example.cashewcorner.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for purchase order CSV files, one line at a time.
+ * The first line is a header naming the columns (any order, case-insensitive):
+ * supplier_id, order_date, sku, quantity, unit_price (required) and po_ref,
+ * expected_date (optional). Dates are ISO (yyyy-MM-dd). Fields may be quoted with
+ * double quotes; quoted fields cannot span lines.
+ */
+final class PurchaseOrderCsvReader {
+
+    static final String PO_REF = "po_ref";
+    static final String SUPPLIER_ID = "supplier_id";
+    static final String ORDER_DATE = "order_date";
+    static final String EXPECTED_DATE = "expected_date";
+    static final String SKU = "sku";
+    static final String QUANTITY = "quantity";
+    static final String UNIT_PRICE = "unit_price";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(SUPPLIER_ID, ORDER_DATE, SKU, QUANTITY, UNIT_PRICE);
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+
+    PurchaseOrderCsvReader(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader);
+        String header = this.reader.readLine();
+        lineNumber = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+    }
+
+    /**
+     * Read the next non-blank line.
+     *
+     * @return the row, or null at end of file
+     */
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                return new Row(lineNumber, split(line));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Split one CSV line into fields, honouring double-quoted fields and "" escapes.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * One data line. Typed getters throw IllegalArgumentException with a readable message.
+     */
+    final class Row {
+
+        private final long lineNumber;
+        private final List<String> fields;
+
+        private Row(long lineNumber, List<String> fields) {
+            this.lineNumber = lineNumber;
+            this.fields = fields;
+        }
+
+        long getLineNumber() {
+            return lineNumber;
+        }
+
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return "";
+            }
+            return fields.get(index).trim();
+        }
+
+        String require(String column) {
+            String value = get(column);
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return value;
+        }
+
+        Long getLong(String column) {
+            String value = require(column);
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a number: " + value);
+            }
+        }
+
+        BigDecimal getDecimal(String column) {
+            String value = require(column);
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a number: " + value);
+            }
+        }
+
+        LocalDate getDate(String column, boolean required) {
+            String value = required ? require(column) : get(column);
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(column + " is not a date (yyyy-MM-dd): " + value);
+            }
+        }
+    }
+}
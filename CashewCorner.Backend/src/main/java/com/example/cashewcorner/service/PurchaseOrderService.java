@@ -9,13 +9,30 @@ import com.example.cashewcorner.exception.ResourceNotFoundException;
 import com.example.cashewcorner.repository.ProductRepository;
 import com.example.cashewcorner.repository.PurchaseOrderRepository;
 import com.example.cashewcorner.repository.SupplierRepository;
+import com.example.cashewcorner.repository.projection.ProductSkuProjection;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.time.Year;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,56 +40,186 @@ import java.util.stream.Collectors;
 @Transactional
 public class PurchaseOrderService {
 
+    private static final int MAX_IMPORT_ERRORS = 100;
+    private static final String STATUS_COMPLETED = "completed";
+    private static final String STATUS_PARTIALLY_RECEIVED = "partially_received";
+    private static final String STATUS_CANCELLED = "cancelled";
+
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final DocumentNumberService documentNumberService;
+    private final InventoryService inventoryService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate orderTransaction;
+    private final TransactionTemplate importTransaction;
+    private final int importChunkSize;
 
     public PurchaseOrderService(PurchaseOrderRepository purchaseOrderRepository,
                                SupplierRepository supplierRepository,
-                               ProductRepository productRepository) {
+                               ProductRepository productRepository,
+                               MonthlyRollupService monthlyRollupService,
+                               DocumentNumberService documentNumberService,
+                               InventoryService inventoryService,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${orders.import.chunk-size:200}") int importChunkSize) {
         this.purchaseOrderRepository = purchaseOrderRepository;
         this.supplierRepository = supplierRepository;
         this.productRepository = productRepository;
+        this.monthlyRollupService = monthlyRollupService;
+        this.documentNumberService = documentNumberService;
+        this.inventoryService = inventoryService;
+        this.entityManager = entityManager;
+        this.orderTransaction = new TransactionTemplate(transactionManager);
+        this.importTransaction = new TransactionTemplate(transactionManager);
+        this.importChunkSize = Math.max(1, importChunkSize);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PurchaseOrderDto createPurchaseOrder(CreatePurchaseOrderRequestDto request) {
         log.info("Creating purchase order - [supplierId={}]", request.getSupplierId());
 
-        Supplier supplier = supplierRepository.findBySupplierIdAndIsActiveTrue(request.getSupplierId())
-                .orElseThrow(() -> new ResourceNotFoundException("Supplier not found with id: " + request.getSupplierId()));
+        // Numbered before the order transaction so a block refill never needs a second connection
+        String poNumber = generatePoNumber();
 
-        PurchaseOrder purchaseOrder = PurchaseOrder.builder()
-                .poNumber(generatePoNumber())
-                .supplier(supplier)
-                .orderDate(request.getOrderDate())
-                .expectedDate(request.getExpectedDate())
-                .status("pending")
-                .isActive(true)
+        return orderTransaction.execute(status -> {
+            Supplier supplier = supplierRepository.findBySupplierIdAndIsActiveTrue(request.getSupplierId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Supplier not found with id: " + request.getSupplierId()));
+
+            PurchaseOrder purchaseOrder = buildPurchaseOrder(request, poNumber, supplier, productId ->
+                    productRepository.findByProductIdAndIsActiveTrue(productId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId)));
+
+            purchaseOrder = purchaseOrderRepository.save(purchaseOrder);
+            monthlyRollupService.recordPurchaseOrder(purchaseOrder);
+
+            log.info("Purchase order created successfully - [poNumber={}, totalAmount={}]", 
+                    purchaseOrder.getPoNumber(), purchaseOrder.getTotalAmount());
+
+            return mapToDto(purchaseOrder);
+        });
+    }
+
+    /**
+     * Import purchase orders from a CSV stream (see {@link PurchaseOrderCsvReader} for the columns).
+     * Lines are read one at a time; consecutive lines with the same supplier_id and po_ref
+     * form one purchase order, so a file should be sorted by those columns. SKUs are
+     * resolved against an in-memory SKU -> productId index loaded once, and suppliers are
+     * looked up once per id. An invalid line rejects its whole order; the other orders are
+     * committed in chunks of orders.import.chunk-size, and the persistence context is
+     * cleared after each chunk so memory stays bounded regardless of file size.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PurchaseOrderImportResultDto importPurchaseOrders(InputStream input) {
+        Map<String, Long> productIdsBySku = new HashMap<>();
+        for (ProductSkuProjection product : productRepository.findActiveSkuIndex()) {
+            productIdsBySku.put(product.getSku(), product.getProductId());
+        }
+        log.info("Importing purchase orders - [skus={}, chunkSize={}]", productIdsBySku.size(), importChunkSize);
+
+        ImportProgress progress = new ImportProgress();
+        Map<Long, Boolean> activeSuppliers = new HashMap<>();
+        Function<Long, Boolean> supplierActive = supplierId -> activeSuppliers.computeIfAbsent(supplierId,
+                id -> supplierRepository.findBySupplierIdAndIsActiveTrue(id).isPresent());
+        List<ImportedOrder> chunk = new ArrayList<>(importChunkSize);
+
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            PurchaseOrderCsvReader csv = new PurchaseOrderCsvReader(reader);
+            ImportedOrder current = null;
+            PurchaseOrderCsvReader.Row row;
+            while ((row = csv.next()) != null) {
+                progress.linesRead++;
+                String groupKey = row.get(PurchaseOrderCsvReader.SUPPLIER_ID) + '\n' + row.get(PurchaseOrderCsvReader.PO_REF);
+                if (current == null || !current.groupKey.equals(groupKey)) {
+                    if (current != null) {
+                        queueImportedOrder(current, chunk, progress);
+                    }
+                    current = new ImportedOrder(groupKey, row.getLineNumber());
+                }
+                current.add(row, productIdsBySku, supplierActive);
+            }
+            if (current != null) {
+                queueImportedOrder(current, chunk, progress);
+            }
+            commitImportChunk(chunk, progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read purchase order CSV", e);
+        }
+
+        log.info("Purchase order import completed - [linesRead={}, ordersCreated={}, ordersRejected={}]",
+                progress.linesRead, progress.ordersCreated, progress.ordersRejected);
+
+        return PurchaseOrderImportResultDto.builder()
+                .linesRead(progress.linesRead)
+                .ordersCreated(progress.ordersCreated)
+                .ordersRejected(progress.ordersRejected)
+                .linesImported(progress.linesImported)
+                .linesRejected(progress.linesRejected)
+                .errors(progress.errors)
+                .errorsTruncated(progress.errorsTruncated)
                 .build();
+    }
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
+    /**
+     * Receive a delivery against a purchase order in one transaction. The order, its items
+     * and their products come from one query (which also locks the order against a
+     * concurrent delivery); stock is received through InventoryService.receiveStockBatch;
+     * item received quantities and the order status are then updated. Lines may not exceed
+     * what is still outstanding on their item.
+     */
+    public PurchaseOrderDto receivePurchaseOrder(Long purchaseOrderId, ReceivePurchaseOrderRequestDto request) {
+        log.info("Receiving purchase order delivery - [purchaseOrderId={}, lines={}]",
+                purchaseOrderId, request.getLines().size());
 
-        for (PurchaseOrderItemRequestDto itemRequest : request.getItems()) {
-            Product product = productRepository.findByProductIdAndIsActiveTrue(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemRequest.getProductId()));
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.findForReceiving(purchaseOrderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Purchase order not found with id: " + purchaseOrderId));
+        if (STATUS_CANCELLED.equalsIgnoreCase(purchaseOrder.getStatus())) {
+            throw new IllegalArgumentException("Purchase order " + purchaseOrder.getPoNumber() + " is cancelled");
+        }
 
-            PurchaseOrderItem item = PurchaseOrderItem.builder()
-                    .purchaseOrder(purchaseOrder)
-                    .product(product)
-                    .quantity(itemRequest.getQuantity())
-                    .unitPrice(itemRequest.getUnitPrice())
-                    .receivedQuantity(BigDecimal.ZERO)
-                    .build();
+        Map<Long, PurchaseOrderItem> items = purchaseOrder.getItems().stream()
+                .collect(Collectors.toMap(PurchaseOrderItem::getPurchaseOrderItemId, Function.identity()));
+        Map<Long, BigDecimal> delivered = new HashMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        List<ReceiveStockRequestDto> receipts = new ArrayList<>(request.getLines().size());
 
-            purchaseOrder.getItems().add(item);
-            totalAmount = totalAmount.add(item.getLineTotal());
+        for (ReceivePurchaseOrderLineDto line : request.getLines()) {
+            PurchaseOrderItem item = items.get(line.getPurchaseOrderItemId());
+            if (item == null) {
+                throw new IllegalArgumentException("Item " + line.getPurchaseOrderItemId()
+                        + " does not belong to purchase order " + purchaseOrder.getPoNumber());
+            }
+            BigDecimal outstanding = item.getQuantity().subtract(receivedQuantityOf(item));
+            if (delivered.merge(item.getPurchaseOrderItemId(), line.getQuantity(), BigDecimal::add).compareTo(outstanding) > 0) {
+                throw new IllegalArgumentException("Item " + item.getPurchaseOrderItemId()
+                        + " has only " + outstanding + " outstanding");
+            }
+
+            Product product = item.getProduct();
+            products.put(product.getProductId(), product);
+            receipts.add(ReceiveStockRequestDto.builder()
+                    .productId(product.getProductId())
+                    .quantity(line.getQuantity())
+                    .location(StringUtils.hasText(line.getLocation()) ? line.getLocation() : request.getLocation())
+                    .purchaseOrderId(purchaseOrderId)
+                    .notes(request.getNotes())
+                    .build());
         }
 
-        purchaseOrder.setTotalAmount(totalAmount);
-        purchaseOrder = purchaseOrderRepository.save(purchaseOrder);
+        inventoryService.receiveStockBatch(receipts, products);
+
+        delivered.forEach((itemId, quantity) -> {
+            PurchaseOrderItem item = items.get(itemId);
+            item.setReceivedQuantity(receivedQuantityOf(item).add(quantity));
+        });
+        boolean complete = purchaseOrder.getItems().stream()
+                .allMatch(item -> receivedQuantityOf(item).compareTo(item.getQuantity()) >= 0);
+        purchaseOrder.setStatus(complete ? STATUS_COMPLETED : STATUS_PARTIALLY_RECEIVED);
 
-        log.info("Purchase order created successfully - [poNumber={}, totalAmount={}]", 
-                purchaseOrder.getPoNumber(), purchaseOrder.getTotalAmount());
+        log.info("Purchase order delivery received - [poNumber={}, lines={}, status={}]",
+                purchaseOrder.getPoNumber(), receipts.size(), purchaseOrder.getStatus());
 
         return mapToDto(purchaseOrder);
     }
@@ -85,6 +232,19 @@ public class PurchaseOrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<PurchaseOrderDto> getPurchaseOrdersPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching purchase order page - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(purchaseOrderRepository.findActivePage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, PurchaseOrder::getPurchaseOrderId, this::mapToDto);
+    }
+
     @Transactional(readOnly = true)
     public PurchaseOrderDto getPurchaseOrderById(Long purchaseOrderId) {
         log.info("Fetching purchase order - [purchaseOrderId={}]", purchaseOrderId);
@@ -104,17 +264,94 @@ public class PurchaseOrderService {
                 .collect(Collectors.toList());
     }
 
-    private String generatePoNumber() {
-        String year = String.valueOf(Year.now().getValue());
-        String latestPoNumber = purchaseOrderRepository.findLatestPoNumberForYear(year);
+    private PurchaseOrder buildPurchaseOrder(CreatePurchaseOrderRequestDto request, String poNumber, Supplier supplier,
+                                             Function<Long, Product> productLookup) {
+        PurchaseOrder purchaseOrder = PurchaseOrder.builder()
+                .poNumber(poNumber)
+                .supplier(supplier)
+                .orderDate(request.getOrderDate())
+                .expectedDate(request.getExpectedDate())
+                .status("pending")
+                .isActive(true)
+                .build();
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for (PurchaseOrderItemRequestDto itemRequest : request.getItems()) {
+            PurchaseOrderItem item = PurchaseOrderItem.builder()
+                    .purchaseOrder(purchaseOrder)
+                    .product(productLookup.apply(itemRequest.getProductId()))
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(itemRequest.getUnitPrice())
+                    .receivedQuantity(BigDecimal.ZERO)
+                    .build();
 
-        int nextNumber = 1;
-        if (latestPoNumber != null) {
-            String numberPart = latestPoNumber.substring(6);
-            nextNumber = Integer.parseInt(numberPart) + 1;
+            purchaseOrder.getItems().add(item);
+            totalAmount = totalAmount.add(item.getLineTotal());
         }
 
-        return String.format("PO%s%04d", year, nextNumber);
+        purchaseOrder.setTotalAmount(totalAmount);
+        return purchaseOrder;
+    }
+
+    private static BigDecimal receivedQuantityOf(PurchaseOrderItem item) {
+        return item.getReceivedQuantity() != null ? item.getReceivedQuantity() : BigDecimal.ZERO;
+    }
+
+    private void queueImportedOrder(ImportedOrder order, List<ImportedOrder> chunk, ImportProgress progress) {
+        if (order.error != null) {
+            progress.reject(order, order.error);
+            return;
+        }
+        chunk.add(order);
+        if (chunk.size() >= importChunkSize) {
+            commitImportChunk(chunk, progress);
+        }
+    }
+
+    /**
+     * Save the queued orders in one transaction, then detach them. Suppliers and products
+     * are attached as references, since both were already validated.
+     */
+    private void commitImportChunk(List<ImportedOrder> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<String> poNumbers = new ArrayList<>(chunk.size());
+        chunk.forEach(order -> poNumbers.add(generatePoNumber()));
+        try {
+            importTransaction.executeWithoutResult(status -> {
+                List<PurchaseOrder> orders = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    ImportedOrder order = chunk.get(i);
+                    orders.add(buildPurchaseOrder(order.request, poNumbers.get(i),
+                            supplierRepository.getReferenceById(order.request.getSupplierId()),
+                            productRepository::getReferenceById));
+                }
+                monthlyRollupService.recordPurchaseOrders(purchaseOrderRepository.saveAll(orders));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (ImportedOrder order : chunk) {
+                progress.ordersCreated++;
+                progress.linesImported += order.lineCount;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purchase order import chunk failed - [firstLine={}, orders={}, error={}]",
+                    chunk.get(0).firstLine, chunk.size(), e.getMessage());
+            entityManager.clear();
+            for (ImportedOrder order : chunk) {
+                progress.reject(order, "Could not be saved: " + e.getMessage());
+            }
+        }
+        chunk.clear();
+    }
+
+    private String generatePoNumber() {
+        return documentNumberService.nextNumber("PO", year -> {
+            String latest = purchaseOrderRepository.findLatestPoNumberForYear(String.valueOf(year));
+            return latest != null ? Long.parseLong(latest.substring(6)) : 0L;
+        });
     }
 
     private PurchaseOrderDto mapToDto(PurchaseOrder order) {
@@ -143,4 +380,84 @@ public class PurchaseOrderService {
                 .updatedAt(order.getUpdatedAt())
                 .build();
     }
+
+    /**
+     * One purchase order being assembled from consecutive CSV lines.
+     */
+    private static final class ImportedOrder {
+
+        private final String groupKey;
+        private final long firstLine;
+        private final CreatePurchaseOrderRequestDto request = new CreatePurchaseOrderRequestDto();
+        private int lineCount;
+        private String error;
+
+        private ImportedOrder(String groupKey, long firstLine) {
+            this.groupKey = groupKey;
+            this.firstLine = firstLine;
+            this.request.setItems(new ArrayList<>());
+        }
+
+        private void add(PurchaseOrderCsvReader.Row row, Map<String, Long> productIdsBySku,
+                         Function<Long, Boolean> supplierActive) {
+            lineCount++;
+            if (error != null) {
+                return;
+            }
+            try {
+                if (lineCount == 1) {
+                    Long supplierId = row.getLong(PurchaseOrderCsvReader.SUPPLIER_ID);
+                    if (!supplierActive.apply(supplierId)) {
+                        throw new IllegalArgumentException("Supplier not found with id: " + supplierId);
+                    }
+                    request.setSupplierId(supplierId);
+                    request.setOrderDate(row.getDate(PurchaseOrderCsvReader.ORDER_DATE, true));
+                    request.setExpectedDate(row.getDate(PurchaseOrderCsvReader.EXPECTED_DATE, false));
+                } else if (!request.getOrderDate().equals(row.getDate(PurchaseOrderCsvReader.ORDER_DATE, true))) {
+                    throw new IllegalArgumentException("order_date differs from the first line of the order");
+                }
+
+                String sku = row.require(PurchaseOrderCsvReader.SKU);
+                Long productId = productIdsBySku.get(sku);
+                if (productId == null) {
+                    throw new IllegalArgumentException("Product not found with sku: " + sku);
+                }
+                BigDecimal quantity = row.getDecimal(PurchaseOrderCsvReader.QUANTITY);
+                if (quantity.signum() <= 0) {
+                    throw new IllegalArgumentException("quantity must be greater than 0");
+                }
+                BigDecimal unitPrice = row.getDecimal(PurchaseOrderCsvReader.UNIT_PRICE);
+                if (unitPrice.signum() < 0) {
+                    throw new IllegalArgumentException("unit_price must be 0 or greater");
+                }
+                request.getItems().add(new PurchaseOrderItemRequestDto(productId, quantity, unitPrice));
+            } catch (IllegalArgumentException e) {
+                error = "Line " + row.getLineNumber() + ": " + e.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Running counters of an import; keeps at most MAX_IMPORT_ERRORS messages.
+     */
+    private static final class ImportProgress {
+
+        private long linesRead;
+        private long ordersCreated;
+        private long ordersRejected;
+        private long linesImported;
+        private long linesRejected;
+        private final List<String> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        private void reject(ImportedOrder order, String error) {
+            ordersRejected++;
+            linesRejected += order.lineCount;
+            if (errors.size() < MAX_IMPORT_ERRORS) {
+                errors.add(error);
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
 }
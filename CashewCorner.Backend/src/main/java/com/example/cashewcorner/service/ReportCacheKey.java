@@ -0,0 +1,34 @@
+package com.example.cashewcorner.service;
+
+import lombok.Value;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cache key for a report result: report type, the year it covers and its
+ * remaining parameters in a normalized (sorted, lower-cased) form, so that
+ * equivalent requests share one entry.
+ */
+@Value
+public class ReportCacheKey {
+
+    String reportType;
+    int year;
+    String parameters;
+
+    public static ReportCacheKey of(String reportType, int year, Map<String, Object> parameters) {
+        StringBuilder normalized = new StringBuilder();
+        if (parameters != null) {
+            new TreeMap<>(parameters).forEach((name, value) -> {
+                if (value != null) {
+                    if (normalized.length() > 0) {
+                        normalized.append('&');
+                    }
+                    normalized.append(name).append('=').append(value.toString().trim().toLowerCase());
+                }
+            });
+        }
+        return new ReportCacheKey(reportType.toUpperCase(), year, normalized.toString());
+    }
+}
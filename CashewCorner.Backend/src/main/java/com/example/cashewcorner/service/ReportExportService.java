@@ -0,0 +1,221 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.repository.SalesOrderItemRepository;
+import com.example.cashewcorner.repository.projection.SalesLineExportProjection;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams row-oriented report data straight from the database to an output stream.
+ * Rows come from a cursor-backed JPA stream and are written one at a time as CSV or
+ * NDJSON, so heap use stays flat regardless of how many rows are exported.
+ */
+@Slf4j
+@Service
+public class ReportExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String[] SALES_LINE_COLUMNS = {
+            "salesOrderItemId", "soNumber", "orderDate", "createdAt", "customerId", "customerName",
+            "productId", "productSku", "productName", "quantity", "unitPrice", "lineTotal"
+    };
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final SalesOrderItemRepository salesOrderItemRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReportExportService(SalesOrderItemRepository salesOrderItemRepository, ObjectMapper objectMapper) {
+        this.salesOrderItemRepository = salesOrderItemRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Normalize the requested export format.
+     *
+     * @param format "csv" or "ndjson" (case-insensitive, defaults to csv)
+     * @return normalized format
+     */
+    public static String normalizeFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return FORMAT_CSV;
+        }
+        String normalized = format.trim().toLowerCase();
+        if (!FORMAT_CSV.equals(normalized) && !FORMAT_NDJSON.equals(normalized)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        return normalized;
+    }
+
+    /**
+     * Resolve the half-open [start, end) period of a SALES_LINES report from its parameters.
+     * Accepts either "year" or an inclusive "startDate"/"endDate" pair; defaults to the current year.
+     *
+     * @param parameters report parameters
+     * @return two-element array holding start (inclusive) and end (exclusive)
+     */
+    public static LocalDateTime[] resolvePeriod(Map<String, Object> parameters) {
+        if (parameters != null && parameters.containsKey("startDate")) {
+            LocalDate startDate = LocalDate.parse(parameters.get("startDate").toString());
+            LocalDate endDate = parameters.containsKey("endDate")
+                    ? LocalDate.parse(parameters.get("endDate").toString())
+                    : LocalDate.now();
+            if (endDate.isBefore(startDate)) {
+                throw new IllegalArgumentException("endDate must not be before startDate");
+            }
+            return new LocalDateTime[]{startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()};
+        }
+
+        int year = parameters != null && parameters.containsKey("year")
+                ? Integer.parseInt(parameters.get("year").toString())
+                : LocalDate.now().getYear();
+        LocalDateTime start = LocalDateTime.of(year, 1, 1, 0, 0);
+        return new LocalDateTime[]{start, start.plusYears(1)};
+    }
+
+    /**
+     * Write all active sales order lines of the period to the output stream.
+     * The read-only transaction (and its connection) stays open for the duration of the export.
+     *
+     * @param parameters SALES_LINES report parameters
+     * @param format "csv" or "ndjson"
+     * @param out destination stream (not closed)
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportSalesLines(Map<String, Object> parameters, String format, OutputStream out) throws IOException {
+        LocalDateTime[] period = resolvePeriod(parameters);
+        log.info("Exporting sales lines - [start={}, end={}, format={}]", period[0], period[1], format);
+
+        long rows;
+        try (Stream<SalesLineExportProjection> lines =
+                     salesOrderItemRepository.streamLinesByPeriod(period[0], period[1])) {
+            rows = FORMAT_NDJSON.equals(format)
+                    ? writeNdjson(lines.iterator(), out)
+                    : writeCsv(lines.iterator(), out);
+        }
+
+        log.info("Sales lines exported - [start={}, end={}, rows={}]", period[0], period[1], rows);
+        return rows;
+    }
+
+    private long writeCsv(Iterator<SalesLineExportProjection> lines, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", SALES_LINE_COLUMNS));
+        writer.write("\r\n");
+
+        long rows = 0;
+        while (lines.hasNext()) {
+            SalesLineExportProjection line = lines.next();
+            writer.write(String.valueOf(line.getSalesOrderItemId()));
+            writer.write(',');
+            writer.write(csv(line.getSoNumber()));
+            writer.write(',');
+            writer.write(csv(line.getOrderDate()));
+            writer.write(',');
+            writer.write(csv(line.getCreatedAt()));
+            writer.write(',');
+            writer.write(csv(line.getCustomerId()));
+            writer.write(',');
+            writer.write(csv(line.getCustomerName()));
+            writer.write(',');
+            writer.write(csv(line.getProductId()));
+            writer.write(',');
+            writer.write(csv(line.getProductSku()));
+            writer.write(',');
+            writer.write(csv(line.getProductName()));
+            writer.write(',');
+            writer.write(csv(plain(line.getQuantity())));
+            writer.write(',');
+            writer.write(csv(plain(line.getUnitPrice())));
+            writer.write(',');
+            writer.write(csv(plain(lineTotal(line))));
+            writer.write("\r\n");
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<SalesLineExportProjection> lines, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        long rows = 0;
+        while (lines.hasNext()) {
+            SalesLineExportProjection line = lines.next();
+            generator.writeStartObject();
+            generator.writeObjectField("salesOrderItemId", line.getSalesOrderItemId());
+            generator.writeStringField("soNumber", line.getSoNumber());
+            generator.writeStringField("orderDate", text(line.getOrderDate()));
+            generator.writeStringField("createdAt", text(line.getCreatedAt()));
+            generator.writeObjectField("customerId", line.getCustomerId());
+            generator.writeStringField("customerName", line.getCustomerName());
+            generator.writeObjectField("productId", line.getProductId());
+            generator.writeStringField("productSku", line.getProductSku());
+            generator.writeStringField("productName", line.getProductName());
+            generator.writeObjectField("quantity", line.getQuantity());
+            generator.writeObjectField("unitPrice", line.getUnitPrice());
+            generator.writeObjectField("lineTotal", lineTotal(line));
+            generator.writeEndObject();
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                generator.flush();
+            }
+        }
+        if (rows > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private static BigDecimal lineTotal(SalesLineExportProjection line) {
+        if (line.getQuantity() == null || line.getUnitPrice() == null) {
+            return null;
+        }
+        return line.getQuantity().multiply(line.getUnitPrice());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.dto.GenerateReportRequestDto;
+import com.example.cashewcorner.dto.ReportDto;
+import com.example.cashewcorner.entity.Report;
+import com.example.cashewcorner.entity.User;
+import com.example.cashewcorner.exception.ResourceNotFoundException;
+import com.example.cashewcorner.exception.ServiceUnavailableException;
+import com.example.cashewcorner.repository.ReportRepository;
+import com.example.cashewcorner.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Runs report generation as background jobs.
+ * A job is persisted as a QUEUED report, computed on the bounded report executor,
+ * and its JSON payload written under the report storage directory. Clients poll
+ * the report status and fetch the payload through the download endpoint.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ReportRepository reportRepository;
+    private final UserRepository userRepository;
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor reportExecutor;
+    private final Path storageDir;
+
+    public ReportJobService(ReportRepository reportRepository,
+                            UserRepository userRepository,
+                            ReportService reportService,
+                            ObjectMapper objectMapper,
+                            @Qualifier("reportExecutor") TaskExecutor reportExecutor,
+                            @Value("${reports.storage-dir:./report-files}") String storageDir) {
+        this.reportRepository = reportRepository;
+        this.userRepository = userRepository;
+        this.reportService = reportService;
+        this.objectMapper = objectMapper;
+        this.reportExecutor = reportExecutor;
+        this.storageDir = Paths.get(storageDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Record a report job and hand it to the report executor.
+     *
+     * @param request report type and parameters
+     * @param username user requesting the report
+     * @return the queued report (no data yet)
+     */
+    public ReportDto enqueueReport(GenerateReportRequestDto request, String username) {
+        String reportType = request.getReportType().toUpperCase();
+        if (!ReportService.SUPPORTED_REPORT_TYPES.contains(reportType)) {
+            throw new IllegalArgumentException("Unknown report type: " + request.getReportType());
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+
+        String parametersJson = null;
+        try {
+            parametersJson = objectMapper.writeValueAsString(request.getParameters());
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize parameters", e);
+        }
+
+        Report report = reportRepository.save(Report.builder()
+                .reportType(request.getReportType())
+                .parameters(parametersJson)
+                .generatedBy(user)
+                .status(Report.STATUS_QUEUED)
+                .build());
+        Long reportId = report.getReportId();
+
+        try {
+            reportExecutor.execute(() -> runJob(reportId, reportType, request.getParameters()));
+        } catch (TaskRejectedException e) {
+            log.warn("Report job rejected, queue is full - [reportId={}]", reportId);
+            reportRepository.markFailed(reportId, "Report queue is full", LocalDateTime.now());
+            throw new ServiceUnavailableException("Report queue is full, please retry later");
+        }
+
+        log.info("Report job queued - [reportId={}, type={}, user={}]", reportId, reportType, username);
+
+        return ReportDto.builder()
+                .reportId(reportId)
+                .reportType(report.getReportType())
+                .parameters(request.getParameters())
+                .generatedBy(user.getUsername())
+                .generatedAt(report.getGeneratedAt())
+                .status(report.getStatus())
+                .build();
+    }
+
+    /**
+     * Resolve the stored payload file of a completed report.
+     *
+     * @param filePath path recorded on the report
+     * @return the payload file
+     */
+    public Path resolveReportFile(String filePath) {
+        Path file = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!file.startsWith(storageDir) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Report file not found: " + file.getFileName());
+        }
+        return file;
+    }
+
+    /**
+     * Jobs that were queued or running when the application stopped will never finish.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int failed = reportRepository.failUnfinishedJobs("Interrupted by application restart", LocalDateTime.now());
+        if (failed > 0) {
+            log.warn("Marked interrupted report jobs as failed - [count={}]", failed);
+        }
+    }
+
+    private void runJob(Long reportId, String reportType, Map<String, Object> parameters) {
+        log.info("Report job started - [reportId={}, type={}]", reportId, reportType);
+        try {
+            reportRepository.updateStatus(reportId, Report.STATUS_RUNNING);
+
+            Map<String, Object> data = reportService.computeReportData(reportType, parameters);
+            Path file = writePayload(reportId, reportType, data);
+
+            reportRepository.markCompleted(reportId, file.toString(), LocalDateTime.now());
+            log.info("Report job completed - [reportId={}, file={}]", reportId, file);
+        } catch (Exception e) {
+            log.error("Report job failed - [reportId={}, error={}]", reportId, e.getMessage(), e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            reportRepository.markFailed(reportId,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                    LocalDateTime.now());
+        }
+    }
+
+    private Path writePayload(Long reportId, String reportType, Map<String, Object> data) throws IOException {
+        Files.createDirectories(storageDir);
+        Path file = storageDir.resolve("report-" + reportId + "-" + reportType.toLowerCase() + ".json");
+        Path tmp = storageDir.resolve(file.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), data);
+        return Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.cashewcorner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of report results.
+ * Entries are keyed by report type, year and normalized parameters. Writers evict
+ * the entries of the data domain and year they touched once their transaction has
+ * committed, so a dashboard never keeps serving totals that predate a new order.
+ * A load that was already running when an eviction happened may have read the old
+ * data, so its result is returned to its callers but not kept.
+ * Hit/miss counters are published to Micrometer as cache.gets{cache=reportResults}.
+ */
+@Slf4j
+@Component
+public class ReportResultCache {
+
+    public static final String TRANSACTION_SUMMARY = "TRANSACTION_SUMMARY";
+    public static final String CATEGORY_FINANCIAL_SUMMARY = "CATEGORY_FINANCIAL_SUMMARY";
+    public static final String CATEGORY_VOLUME = "CATEGORY_VOLUME";
+    public static final String SELLING_PRICE_FLUCTUATION = "SELLING_PRICE_FLUCTUATION";
+
+    public static final String DOMAIN_SALES = "SALES";
+    public static final String DOMAIN_PURCHASES = "PURCHASES";
+    public static final String DOMAIN_CATEGORIES = "CATEGORIES";
+    public static final String DOMAIN_PRODUCTS = "PRODUCTS";
+
+    /**
+     * Data domains each cached report type is computed from.
+     */
+    private static final Map<String, Set<String>> DEPENDENCIES = Map.of(
+            TRANSACTION_SUMMARY, Set.of(DOMAIN_SALES, DOMAIN_PURCHASES),
+            CATEGORY_FINANCIAL_SUMMARY, Set.of(DOMAIN_SALES, DOMAIN_PURCHASES, DOMAIN_CATEGORIES, DOMAIN_PRODUCTS),
+            CATEGORY_VOLUME, Set.of(DOMAIN_SALES, DOMAIN_PURCHASES, DOMAIN_CATEGORIES, DOMAIN_PRODUCTS),
+            SELLING_PRICE_FLUCTUATION, Set.of(DOMAIN_SALES, DOMAIN_PRODUCTS));
+
+    private final Cache<ReportCacheKey, Object> cache;
+
+    /**
+     * Incremented by every eviction; a load compares it before and after.
+     */
+    private final AtomicLong evictionGeneration = new AtomicLong();
+
+    public ReportResultCache(MeterRegistry meterRegistry,
+                             @Value("${reports.cache.maximum-size:500}") long maximumSize,
+                             @Value("${reports.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reportResults");
+    }
+
+    /**
+     * Return the cached result for the key, computing and caching it on a miss.
+     * Exceptions from the loader propagate and nothing is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportCacheKey key, Supplier<T> loader) {
+        long[] loadStartedAt = {-1};
+        Object result = cache.get(key, k -> {
+            loadStartedAt[0] = evictionGeneration.get();
+            return loader.get();
+        });
+        if (loadStartedAt[0] >= 0 && loadStartedAt[0] != evictionGeneration.get()) {
+            // Evicted while loading; the removeIf could not see the entry yet
+            cache.asMap().remove(key, result);
+        }
+        return (T) result;
+    }
+
+    /**
+     * Evict results of the given year that depend on the domain, after the current transaction commits.
+     */
+    public void evictYear(String domain, int year) {
+        afterCommit(() -> evictMatching(key -> key.getYear() == year && dependsOn(key, domain)),
+                domain, String.valueOf(year));
+    }
+
+    /**
+     * Evict results of every year that depend on the domain, after the current transaction commits.
+     */
+    public void evictDomain(String domain) {
+        afterCommit(() -> evictMatching(key -> dependsOn(key, domain)), domain, "all");
+    }
+
+    private static boolean dependsOn(ReportCacheKey key, String domain) {
+        return DEPENDENCIES.getOrDefault(key.getReportType(), Set.of()).contains(domain);
+    }
+
+    private void evictMatching(Predicate<ReportCacheKey> predicate) {
+        // Bump first, so a load finishing after the removeIf sees it
+        evictionGeneration.incrementAndGet();
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    private void afterCommit(Runnable eviction, String domain, String years) {
+        log.debug("Evicting cached reports - [domain={}, year={}]", domain, years);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
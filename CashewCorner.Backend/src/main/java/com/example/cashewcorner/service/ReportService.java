@@ -4,9 +4,14 @@ import com.example.cashewcorner.dto.*;
 import com.example.cashewcorner.entity.*;
 import com.example.cashewcorner.exception.ResourceNotFoundException;
 import com.example.cashewcorner.repository.*;
+import com.example.cashewcorner.repository.projection.CustomerSalesTotalProjection;
+import com.example.cashewcorner.repository.projection.MonthlyPriceStatsProjection;
+import com.example.cashewcorner.repository.projection.MonthlyTotalProjection;
+import com.example.cashewcorner.repository.projection.ProductMonthlyTotalProjection;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,39 +27,51 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReportService {
 
+    private static final int TOP_CUSTOMER_LIMIT = 10;
+    private static final int MAX_FLUCTUATION_PRODUCTS = 50;
+    private static final int MAX_FLUCTUATION_YEARS = 10;
+
+    public static final String REPORT_TYPE_SALES_LINES = "SALES_LINES";
+
+    public static final Set<String> SUPPORTED_REPORT_TYPES = Set.of("INVENTORY_SUMMARY", "SALES_PERFORMANCE",
+            "PAYROLL_SUMMARY", "LOW_STOCK_ALERT", REPORT_TYPE_SALES_LINES);
+
     private final ReportRepository reportRepository;
-    private final InventoryRepository inventoryRepository;
+    private final InventoryIndex inventoryIndex;
     private final SalesOrderRepository salesOrderRepository;
     private final PayrollRepository payrollRepository;
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final PurchaseOrderItemRepository purchaseOrderItemRepository;
     private final SalesOrderItemRepository salesOrderItemRepository;
+    private final MonthlyProductRollupRepository monthlyProductRollupRepository;
     private final ProductCategoryRepository productCategoryRepository;
+    private final ReportResultCache reportResultCache;
     private final ObjectMapper objectMapper;
 
     public ReportService(ReportRepository reportRepository,
-                        InventoryRepository inventoryRepository,
+                        InventoryIndex inventoryIndex,
                         SalesOrderRepository salesOrderRepository,
                         PayrollRepository payrollRepository,
                         EmployeeRepository employeeRepository,
                         UserRepository userRepository,
                         ProductRepository productRepository,
-                        PurchaseOrderItemRepository purchaseOrderItemRepository,
                         SalesOrderItemRepository salesOrderItemRepository,
+                        MonthlyProductRollupRepository monthlyProductRollupRepository,
                         ProductCategoryRepository productCategoryRepository,
+                        ReportResultCache reportResultCache,
                         ObjectMapper objectMapper) {
         this.reportRepository = reportRepository;
-        this.inventoryRepository = inventoryRepository;
+        this.inventoryIndex = inventoryIndex;
         this.salesOrderRepository = salesOrderRepository;
         this.payrollRepository = payrollRepository;
         this.employeeRepository = employeeRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
-        this.purchaseOrderItemRepository = purchaseOrderItemRepository;
         this.salesOrderItemRepository = salesOrderItemRepository;
+        this.monthlyProductRollupRepository = monthlyProductRollupRepository;
         this.productCategoryRepository = productCategoryRepository;
+        this.reportResultCache = reportResultCache;
         this.objectMapper = objectMapper;
     }
 
@@ -64,24 +81,7 @@ public class ReportService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
-        Map<String, Object> reportData = new HashMap<>();
-
-        switch (request.getReportType().toUpperCase()) {
-            case "INVENTORY_SUMMARY":
-                reportData = generateInventorySummary(request.getParameters());
-                break;
-            case "SALES_PERFORMANCE":
-                reportData = generateSalesPerformance(request.getParameters());
-                break;
-            case "PAYROLL_SUMMARY":
-                reportData = generatePayrollSummary(request.getParameters());
-                break;
-            case "LOW_STOCK_ALERT":
-                reportData = generateLowStockAlert();
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown report type: " + request.getReportType());
-        }
+        Map<String, Object> reportData = computeReportData(request.getReportType(), request.getParameters());
 
         // Save report metadata
         String parametersJson = null;
@@ -95,6 +95,8 @@ public class ReportService {
                 .reportType(request.getReportType())
                 .parameters(parametersJson)
                 .generatedBy(user)
+                .status(Report.STATUS_COMPLETED)
+                .completedAt(LocalDateTime.now())
                 .build();
 
         report = reportRepository.save(report);
@@ -107,28 +109,56 @@ public class ReportService {
                 .parameters(request.getParameters())
                 .generatedBy(user.getUsername())
                 .generatedAt(report.getGeneratedAt())
+                .status(report.getStatus())
+                .completedAt(report.getCompletedAt())
                 .data(reportData)
                 .build();
     }
 
+    /**
+     * Compute the payload for a report type without persisting anything.
+     * Shared by synchronous generation and the background report jobs.
+     *
+     * @param reportType one of INVENTORY_SUMMARY, SALES_PERFORMANCE, PAYROLL_SUMMARY, LOW_STOCK_ALERT, SALES_LINES
+     * @param parameters optional report parameters
+     * @return report data
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> computeReportData(String reportType, Map<String, Object> parameters) {
+        switch (reportType.toUpperCase()) {
+            case "INVENTORY_SUMMARY":
+                return generateInventorySummary(parameters);
+            case "SALES_PERFORMANCE":
+                return generateSalesPerformance(parameters);
+            case "PAYROLL_SUMMARY":
+                return generatePayrollSummary(parameters);
+            case "LOW_STOCK_ALERT":
+                return generateLowStockAlert();
+            case REPORT_TYPE_SALES_LINES:
+                return generateSalesLinesSummary(parameters);
+            default:
+                throw new IllegalArgumentException("Unknown report type: " + reportType);
+        }
+    }
+
     private Map<String, Object> generateInventorySummary(Map<String, Object> parameters) {
         log.info("Generating inventory summary report");
 
-        List<Inventory> allInventory = inventoryRepository.findAll();
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockItems();
+        List<InventorySnapshot> allInventory = inventoryIndex.getAll();
+        List<InventorySnapshot> lowStockItems = inventoryIndex.getLowStock();
 
         long totalProducts = allInventory.stream()
-                .map(inv -> inv.getProduct().getProductId())
+                .map(InventorySnapshot::getProductId)
                 .distinct()
                 .count();
 
         long locationsCount = allInventory.stream()
-                .map(Inventory::getLocation)
+                .map(InventorySnapshot::getLocation)
                 .distinct()
                 .count();
 
         BigDecimal totalValue = allInventory.stream()
-                .map(inv -> inv.getQuantityOnHand().multiply(inv.getProduct().getCostPrice()))
+                .map(InventorySnapshot::getStockValue)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         Map<String, Object> data = new HashMap<>();
@@ -156,39 +186,33 @@ public class ReportService {
                 ? LocalDate.parse(parameters.get("endDate").toString()) 
                 : LocalDate.now();
 
-        List<SalesOrder> orders = salesOrderRepository.findByIsActiveTrue().stream()
-                .filter(order -> !order.getOrderDate().isBefore(startDate) && !order.getOrderDate().isAfter(endDate))
-                .collect(Collectors.toList());
+        // Overall totals and the top 10 customers come back from a single aggregate query
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        List<Map<String, Object>> topCustomers = new ArrayList<>();
 
-        long totalOrders = orders.size();
-        BigDecimal totalRevenue = orders.stream()
-                .map(SalesOrder::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (CustomerSalesTotalProjection row : salesOrderRepository.findSalesTotalsWithTopCustomers(
+                startDate, endDate, TOP_CUSTOMER_LIMIT)) {
+            BigDecimal rowSales = row.getTotalSales() != null ? row.getTotalSales() : BigDecimal.ZERO;
+            long rowOrders = row.getOrderCount() != null ? row.getOrderCount() : 0L;
 
-        BigDecimal averageOrderValue = totalOrders > 0 
-                ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+            if (row.getCustomerId() == null) {
+                totalOrders = rowOrders;
+                totalRevenue = rowSales;
+                continue;
+            }
 
-        // Top customers by sales
-        Map<Customer, BigDecimal> customerSales = new HashMap<>();
-        for (SalesOrder order : orders) {
-            customerSales.merge(order.getCustomer(), order.getTotalAmount(), BigDecimal::add);
+            Map<String, Object> customerData = new HashMap<>();
+            customerData.put("customerId", row.getCustomerId());
+            customerData.put("customerName", row.getCustomerName());
+            customerData.put("totalSales", rowSales);
+            customerData.put("orderCount", rowOrders);
+            topCustomers.add(customerData);
         }
 
-        List<Map<String, Object>> topCustomers = customerSales.entrySet().stream()
-                .sorted(Map.Entry.<Customer, BigDecimal>comparingByValue().reversed())
-                .limit(10)
-                .map(entry -> {
-                    Map<String, Object> customerData = new HashMap<>();
-                    customerData.put("customerId", entry.getKey().getCustomerId());
-                    customerData.put("customerName", entry.getKey().getName());
-                    customerData.put("totalSales", entry.getValue());
-                    customerData.put("orderCount", orders.stream()
-                            .filter(o -> o.getCustomer().equals(entry.getKey()))
-                            .count());
-                    return customerData;
-                })
-                .collect(Collectors.toList());
+        BigDecimal averageOrderValue = totalOrders > 0 
+                ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
 
         Map<String, Object> data = new HashMap<>();
         data.put("totalOrders", totalOrders);
@@ -246,7 +270,7 @@ public class ReportService {
     private Map<String, Object> generateLowStockAlert() {
         log.info("Generating low stock alert report");
 
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockItems();
+        List<InventorySnapshot> lowStockItems = inventoryIndex.getLowStock();
 
         Map<String, Object> data = new HashMap<>();
         data.put("lowStockCount", lowStockItems.size());
@@ -258,6 +282,22 @@ public class ReportService {
         return data;
     }
 
+    private Map<String, Object> generateSalesLinesSummary(Map<String, Object> parameters) {
+        log.info("Generating sales lines report");
+
+        // The lines themselves are streamed by the download endpoint; only the summary is kept here
+        LocalDateTime[] period = ReportExportService.resolvePeriod(parameters);
+        long lineCount = salesOrderItemRepository.countByPeriod(period[0], period[1]);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("periodStart", period[0]);
+        data.put("periodEndExclusive", period[1]);
+        data.put("lineCount", lineCount);
+        data.put("exportFormats", List.of(ReportExportService.FORMAT_CSV, ReportExportService.FORMAT_NDJSON));
+
+        return data;
+    }
+
     @Transactional(readOnly = true)
     public List<ReportDto> getAllReports() {
         log.info("Fetching all reports");
@@ -266,6 +306,19 @@ public class ReportService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ReportDto> getReportsPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching report page - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(reportRepository.findPage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, Report::getReportId, this::mapToDto);
+    }
+
     @Transactional(readOnly = true)
     public ReportDto getReportById(Long reportId) {
         log.info("Fetching report - [reportId={}]", reportId);
@@ -299,21 +352,24 @@ public class ReportService {
                 .generatedBy(report.getGeneratedBy() != null ? report.getGeneratedBy().getUsername() : null)
                 .generatedAt(report.getGeneratedAt())
                 .filePath(report.getFilePath())
+                .status(report.getStatus())
+                .completedAt(report.getCompletedAt())
+                .errorMessage(report.getErrorMessage())
                 .build();
     }
 
-    private Map<String, Object> mapInventoryToDto(Inventory inventory) {
+    private Map<String, Object> mapInventoryToDto(InventorySnapshot inventory) {
         Map<String, Object> dto = new HashMap<>();
         dto.put("inventoryId", inventory.getInventoryId());
-        dto.put("productId", inventory.getProduct().getProductId());
-        dto.put("productName", inventory.getProduct().getName());
-        dto.put("productSku", inventory.getProduct().getSku());
+        dto.put("productId", inventory.getProductId());
+        dto.put("productName", inventory.getProductName());
+        dto.put("productSku", inventory.getProductSku());
         dto.put("location", inventory.getLocation());
         dto.put("quantityOnHand", inventory.getQuantityOnHand());
         dto.put("reservedQuantity", inventory.getReservedQuantity());
         dto.put("availableQuantity", inventory.getAvailableQuantity());
-        dto.put("reorderLevel", inventory.getProduct().getReorderLevel());
-        dto.put("unit", inventory.getProduct().getUnit());
+        dto.put("reorderLevel", inventory.getReorderLevel());
+        dto.put("unit", inventory.getUnit());
         return dto;
     }
 
@@ -343,70 +399,102 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public List<SellingPriceFluctuationDto> getSellingPriceFluctuation(Long productId, Integer year) {
-        log.info("Generating selling price fluctuation report - [productId={}, year={}]", productId, year);
-
-        // Validate product exists
-        Product product = productRepository.findByProductIdAndIsActiveTrue(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-
         // Default to current year if not specified
         int targetYear = year != null ? year : LocalDate.now().getYear();
+        return getSellingPriceFluctuation(List.of(productId), targetYear, targetYear);
+    }
 
-        // Fetch sales order items for the product and year
-        List<SalesOrderItem> items = salesOrderItemRepository.findByProductIdAndYear(productId, targetYear);
-
-        if (items.isEmpty()) {
-            log.info("No sales order items found for product - [productId={}, year={}]", productId, targetYear);
-            return Collections.emptyList();
+    /**
+     * Get selling price fluctuation report for several products over a range of years.
+     * Average, highest and lowest prices and the line count are aggregated per product
+     * and month in the database; each year is cached separately.
+     *
+     * @param productIds the product IDs to include
+     * @param fromYear first year (inclusive)
+     * @param toYear last year (inclusive)
+     * @return monthly price fluctuation data ordered by product, year and month
+     */
+    @Transactional(readOnly = true)
+    public List<SellingPriceFluctuationDto> getSellingPriceFluctuation(Collection<Long> productIds, int fromYear, int toYear) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one productId is required");
+        }
+        if (productIds.size() > MAX_FLUCTUATION_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + MAX_FLUCTUATION_PRODUCTS + " products can be requested at once");
+        }
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear");
+        }
+        if (toYear - fromYear + 1 > MAX_FLUCTUATION_YEARS) {
+            throw new IllegalArgumentException("At most " + MAX_FLUCTUATION_YEARS + " years can be requested at once");
         }
 
-        // Group items by month and calculate statistics
-        Map<Integer, List<SalesOrderItem>> itemsByMonth = items.stream()
-                .collect(Collectors.groupingBy(item ->
-                        item.getSalesOrder().getCreatedAt().getMonthValue()));
+        List<Long> ids = new ArrayList<>(new TreeSet<>(productIds));
+        log.info("Generating selling price fluctuation report - [productIds={}, fromYear={}, toYear={}]",
+                ids, fromYear, toYear);
+
+        // Validate products exist
+        Map<Long, String> productNames = productRepository.findByProductIdInAndIsActiveTrue(ids).stream()
+                .collect(Collectors.toMap(Product::getProductId, Product::getName));
+        if (productNames.size() < ids.size()) {
+            List<Long> missing = ids.stream()
+                    .filter(id -> !productNames.containsKey(id))
+                    .collect(Collectors.toList());
+            throw new ResourceNotFoundException("Product not found with id: " +
+                    missing.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
 
         List<SellingPriceFluctuationDto> result = new ArrayList<>();
+        for (int targetYear = fromYear; targetYear <= toYear; targetYear++) {
+            int year = targetYear;
+            result.addAll(reportResultCache.get(
+                    ReportCacheKey.of(ReportResultCache.SELLING_PRICE_FLUCTUATION, year, Map.of("productIds", ids)),
+                    () -> buildSellingPriceFluctuation(ids, productNames, year)));
+        }
 
-        for (Map.Entry<Integer, List<SalesOrderItem>> entry : itemsByMonth.entrySet()) {
-            Integer month = entry.getKey();
-            List<SalesOrderItem> monthItems = entry.getValue();
+        // Sort by product, then year and month
+        result.sort(Comparator.comparing(SellingPriceFluctuationDto::getProductId)
+                .thenComparing(SellingPriceFluctuationDto::getYear)
+                .thenComparing(SellingPriceFluctuationDto::getMonth));
 
-            BigDecimal avgPrice = monthItems.stream()
-                    .map(SalesOrderItem::getUnitPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(BigDecimal.valueOf(monthItems.size()), 2, RoundingMode.HALF_UP);
+        log.info("Selling price fluctuation report generated - [productIds={}, fromYear={}, toYear={}, recordsCount={}]",
+                ids, fromYear, toYear, result.size());
+
+        return result;
+    }
 
-            BigDecimal highestPrice = monthItems.stream()
-                    .map(SalesOrderItem::getUnitPrice)
-                    .max(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
+    private List<SellingPriceFluctuationDto> buildSellingPriceFluctuation(List<Long> productIds,
+                                                                          Map<Long, String> productNames,
+                                                                          int targetYear) {
+        LocalDateTime start = LocalDateTime.of(targetYear, 1, 1, 0, 0);
+        List<MonthlyPriceStatsProjection> rows = salesOrderItemRepository.findPriceStatsByProductAndMonth(
+                productIds, start, start.plusYears(1));
 
-            BigDecimal lowestPrice = monthItems.stream()
-                    .map(SalesOrderItem::getUnitPrice)
-                    .min(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
+        List<SellingPriceFluctuationDto> result = new ArrayList<>(rows.size());
+        for (MonthlyPriceStatsProjection row : rows) {
+            long lineCount = row.getLineCount() != null ? row.getLineCount() : 0L;
+            BigDecimal avgPrice = lineCount > 0 && row.getPriceSum() != null
+                    ? row.getPriceSum().divide(BigDecimal.valueOf(lineCount), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
 
             result.add(SellingPriceFluctuationDto.builder()
+                    .productId(row.getProductId())
+                    .productName(productNames.get(row.getProductId()))
                     .year(targetYear)
-                    .month(month)
+                    .month(row.getOrderMonth())
                     .averageSellingPrice(avgPrice)
-                    .highestPrice(highestPrice)
-                    .lowestPrice(lowestPrice)
+                    .highestPrice(row.getHighestPrice() != null ? row.getHighestPrice() : BigDecimal.ZERO)
+                    .lowestPrice(row.getLowestPrice() != null ? row.getLowestPrice() : BigDecimal.ZERO)
+                    .transactionCount(lineCount)
                     .build());
         }
 
-        // Sort by month
-        result.sort(Comparator.comparing(SellingPriceFluctuationDto::getMonth));
-
-        log.info("Selling price fluctuation report generated - [productId={}, year={}, monthsCount={}]",
-                productId, targetYear, result.size());
-
-        return result;
+        return Collections.unmodifiableList(result);
     }
 
     /**
      * Get transaction summary report for a specific year.
-     * Aggregates monthly sales and purchase data.
+     * Aggregates monthly sales and purchase data from the monthly product rollup.
      *
      * @param year optional year filter (defaults to current year if null)
      * @return list of monthly transaction summaries
@@ -414,25 +502,19 @@ public class ReportService {
     @Transactional(readOnly = true)
     public List<TransactionSummaryDto> getTransactionSummary(Integer year) {
         int targetYear = year != null ? year : LocalDate.now().getYear();
-        log.info("Generating transaction summary report - [year={}]", targetYear);
-
-        // Fetch all sales order items for the year
-        List<SalesOrderItem> salesItems = salesOrderItemRepository.findByYear(targetYear);
-
-        // Fetch all purchase order items for the year
-        List<PurchaseOrderItem> purchaseItems = purchaseOrderItemRepository.findByYear(targetYear);
+        return reportResultCache.get(
+                ReportCacheKey.of(ReportResultCache.TRANSACTION_SUMMARY, targetYear, null),
+                () -> buildTransactionSummary(targetYear));
+    }
 
-        // Group sales by month
-        Map<Integer, BigDecimal> salesByMonth = salesItems.stream()
-                .collect(Collectors.groupingBy(
-                        item -> item.getSalesOrder().getCreatedAt().getMonthValue(),
-                        Collectors.reducing(BigDecimal.ZERO, SalesOrderItem::getLineTotal, BigDecimal::add)));
+    private List<TransactionSummaryDto> buildTransactionSummary(int targetYear) {
+        log.info("Generating transaction summary report - [year={}]", targetYear);
 
-        // Group purchases by month
-        Map<Integer, BigDecimal> purchasesByMonth = purchaseItems.stream()
-                .collect(Collectors.groupingBy(
-                        item -> item.getPurchaseOrder().getCreatedAt().getMonthValue(),
-                        Collectors.reducing(BigDecimal.ZERO, PurchaseOrderItem::getLineTotal, BigDecimal::add)));
+        // Monthly sales and purchase totals come from the pre-aggregated rollup
+        Map<Integer, BigDecimal> salesByMonth = toMonthlyTotals(monthlyProductRollupRepository
+                .sumValueByMonth(MonthlyProductRollup.TYPE_SALES, targetYear));
+        Map<Integer, BigDecimal> purchasesByMonth = toMonthlyTotals(monthlyProductRollupRepository
+                .sumValueByMonth(MonthlyProductRollup.TYPE_PURCHASE, targetYear));
 
         // Build result for all months that have data
         Set<Integer> allMonths = new HashSet<>();
@@ -462,12 +544,20 @@ public class ReportService {
 
         log.info("Transaction summary report generated - [year={}, monthsCount={}]", targetYear, result.size());
 
-        return result;
+        return Collections.unmodifiableList(result);
+    }
+
+    private Map<Integer, BigDecimal> toMonthlyTotals(List<MonthlyTotalProjection> rows) {
+        Map<Integer, BigDecimal> totals = new HashMap<>();
+        for (MonthlyTotalProjection row : rows) {
+            totals.put(row.getOrderMonth(), row.getTotalValue() != null ? row.getTotalValue() : BigDecimal.ZERO);
+        }
+        return totals;
     }
 
     /**
      * Get category-based financial summary report for a specific year.
-     * Aggregates sales and purchase data by product category.
+     * Aggregates sales and purchase data by product category from the monthly product rollup.
      *
      * @param year optional year filter (defaults to current year if null)
      * @return list of category financial summaries
@@ -475,33 +565,36 @@ public class ReportService {
     @Transactional(readOnly = true)
     public List<CategoryFinancialSummaryDto> getCategoryFinancialSummary(Integer year) {
         int targetYear = year != null ? year : LocalDate.now().getYear();
+        return reportResultCache.get(
+                ReportCacheKey.of(ReportResultCache.CATEGORY_FINANCIAL_SUMMARY, targetYear, null),
+                () -> buildCategoryFinancialSummary(targetYear));
+    }
+
+    private List<CategoryFinancialSummaryDto> buildCategoryFinancialSummary(int targetYear) {
         log.info("Generating category financial summary report - [year={}]", targetYear);
 
         // Fetch all active categories
         List<ProductCategory> categories = productCategoryRepository.findByIsActiveTrue();
 
-        // Fetch all sales and purchase items for the year
-        List<SalesOrderItem> salesItems = salesOrderItemRepository.findByYear(targetYear);
-        List<PurchaseOrderItem> purchaseItems = purchaseOrderItemRepository.findByYear(targetYear);
+        // Roll per-product totals up to categories in a single pass
+        CategoryAggregationEngine engine = CategoryAggregationEngine.fromMappings(
+                productCategoryRepository.findActiveProductCategoryPairs());
+        Map<Long, CategoryAggregationEngine.Totals> salesByCategory = engine.aggregateByCategory(
+                monthlyProductRollupRepository.findProductTotals(MonthlyProductRollup.TYPE_SALES, targetYear));
+        Map<Long, CategoryAggregationEngine.Totals> purchasesByCategory = engine.aggregateByCategory(
+                monthlyProductRollupRepository.findProductTotals(MonthlyProductRollup.TYPE_PURCHASE, targetYear));
 
         List<CategoryFinancialSummaryDto> result = new ArrayList<>();
 
         for (ProductCategory category : categories) {
             Long categoryId = category.getCategoryId();
 
-            // Calculate total sales for products in this category
-            BigDecimal totalSales = salesItems.stream()
-                    .filter(item -> item.getProduct().getCategories().stream()
-                            .anyMatch(c -> c.getCategoryId().equals(categoryId)))
-                    .map(SalesOrderItem::getLineTotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // Calculate total purchases for products in this category
-            BigDecimal totalPurchases = purchaseItems.stream()
-                    .filter(item -> item.getProduct().getCategories().stream()
-                            .anyMatch(c -> c.getCategoryId().equals(categoryId)))
-                    .map(PurchaseOrderItem::getLineTotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal totalSales = salesByCategory.containsKey(categoryId)
+                    ? salesByCategory.get(categoryId).getValue()
+                    : BigDecimal.ZERO;
+            BigDecimal totalPurchases = purchasesByCategory.containsKey(categoryId)
+                    ? purchasesByCategory.get(categoryId).getValue()
+                    : BigDecimal.ZERO;
 
             BigDecimal profit = totalSales.subtract(totalPurchases);
 
@@ -519,12 +612,12 @@ public class ReportService {
         log.info("Category financial summary report generated - [year={}, categoriesCount={}]",
                 targetYear, result.size());
 
-        return result;
+        return Collections.unmodifiableList(result);
     }
 
     /**
      * Get category volume report for a specific year and type (SALES or PURCHASE).
-     * Aggregates monthly quantity and value data by product category.
+     * Aggregates monthly quantity and value data by product category from the monthly product rollup.
      *
      * @param year optional year filter (defaults to current year if null)
      * @param type the type of report: "SALES" or "PURCHASE"
@@ -534,99 +627,56 @@ public class ReportService {
     public List<CategoryVolumeReportDto> getCategoryVolumeReport(Integer year, String type) {
         int targetYear = year != null ? year : LocalDate.now().getYear();
         String reportType = type != null ? type.toUpperCase() : "SALES";
+        return reportResultCache.get(
+                ReportCacheKey.of(ReportResultCache.CATEGORY_VOLUME, targetYear, Map.of("type", reportType)),
+                () -> buildCategoryVolumeReport(targetYear, reportType));
+    }
+
+    private List<CategoryVolumeReportDto> buildCategoryVolumeReport(int targetYear, String reportType) {
 
         log.info("Generating category volume report - [year={}, type={}]", targetYear, reportType);
 
+        List<ProductMonthlyTotalProjection> productTotals;
+        if (MonthlyProductRollup.TYPE_SALES.equals(reportType)
+                || MonthlyProductRollup.TYPE_PURCHASE.equals(reportType)) {
+            productTotals = monthlyProductRollupRepository.findProductTotals(reportType, targetYear);
+        } else {
+            productTotals = Collections.emptyList();
+        }
+
         // Fetch all active categories
         List<ProductCategory> categories = productCategoryRepository.findByIsActiveTrue();
 
+        // Roll per-product monthly totals up to (category, month) in a single pass
+        CategoryAggregationEngine engine = CategoryAggregationEngine.fromMappings(
+                productCategoryRepository.findActiveProductCategoryPairs());
+        Map<Long, Map<Integer, CategoryAggregationEngine.Totals>> totalsByCategory =
+                engine.aggregateByCategoryAndMonth(productTotals);
+
         List<CategoryVolumeReportDto> result = new ArrayList<>();
 
-        if ("SALES".equals(reportType)) {
-            List<SalesOrderItem> salesItems = salesOrderItemRepository.findByYear(targetYear);
-
-            for (ProductCategory category : categories) {
-                Long categoryId = category.getCategoryId();
-
-                // Filter items for this category
-                List<SalesOrderItem> categoryItems = salesItems.stream()
-                        .filter(item -> item.getProduct().getCategories().stream()
-                                .anyMatch(c -> c.getCategoryId().equals(categoryId)))
-                        .collect(Collectors.toList());
-
-                // Group by month
-                Map<Integer, List<SalesOrderItem>> itemsByMonth = categoryItems.stream()
-                        .collect(Collectors.groupingBy(item ->
-                                item.getSalesOrder().getCreatedAt().getMonthValue()));
-
-                for (Map.Entry<Integer, List<SalesOrderItem>> entry : itemsByMonth.entrySet()) {
-                    Integer month = entry.getKey();
-                    List<SalesOrderItem> monthItems = entry.getValue();
-
-                    BigDecimal totalQuantity = monthItems.stream()
-                            .map(SalesOrderItem::getQuantity)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal totalValue = monthItems.stream()
-                            .map(SalesOrderItem::getLineTotal)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal avgUnitPrice = totalQuantity.compareTo(BigDecimal.ZERO) > 0
-                            ? totalValue.divide(totalQuantity, 2, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO;
-
-                    result.add(CategoryVolumeReportDto.builder()
-                            .categoryId(categoryId)
-                            .categoryName(category.getName())
-                            .month(month)
-                            .quantitySoldOrPurchased(totalQuantity)
-                            .averageUnitPrice(avgUnitPrice)
-                            .totalValue(totalValue)
-                            .build());
-                }
+        for (ProductCategory category : categories) {
+            Map<Integer, CategoryAggregationEngine.Totals> monthlyTotals = totalsByCategory.get(category.getCategoryId());
+            if (monthlyTotals == null) {
+                continue;
             }
-        } else if ("PURCHASE".equals(reportType)) {
-            List<PurchaseOrderItem> purchaseItems = purchaseOrderItemRepository.findByYear(targetYear);
-
-            for (ProductCategory category : categories) {
-                Long categoryId = category.getCategoryId();
-
-                // Filter items for this category
-                List<PurchaseOrderItem> categoryItems = purchaseItems.stream()
-                        .filter(item -> item.getProduct().getCategories().stream()
-                                .anyMatch(c -> c.getCategoryId().equals(categoryId)))
-                        .collect(Collectors.toList());
-
-                // Group by month
-                Map<Integer, List<PurchaseOrderItem>> itemsByMonth = categoryItems.stream()
-                        .collect(Collectors.groupingBy(item ->
-                                item.getPurchaseOrder().getCreatedAt().getMonthValue()));
-
-                for (Map.Entry<Integer, List<PurchaseOrderItem>> entry : itemsByMonth.entrySet()) {
-                    Integer month = entry.getKey();
-                    List<PurchaseOrderItem> monthItems = entry.getValue();
-
-                    BigDecimal totalQuantity = monthItems.stream()
-                            .map(PurchaseOrderItem::getQuantity)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal totalValue = monthItems.stream()
-                            .map(PurchaseOrderItem::getLineTotal)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal avgUnitPrice = totalQuantity.compareTo(BigDecimal.ZERO) > 0
-                            ? totalValue.divide(totalQuantity, 2, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO;
-
-                    result.add(CategoryVolumeReportDto.builder()
-                            .categoryId(categoryId)
-                            .categoryName(category.getName())
-                            .month(month)
-                            .quantitySoldOrPurchased(totalQuantity)
-                            .averageUnitPrice(avgUnitPrice)
-                            .totalValue(totalValue)
-                            .build());
-                }
+
+            for (Map.Entry<Integer, CategoryAggregationEngine.Totals> entry : monthlyTotals.entrySet()) {
+                BigDecimal totalQuantity = entry.getValue().getQuantity();
+                BigDecimal totalValue = entry.getValue().getValue();
+
+                BigDecimal avgUnitPrice = totalQuantity.compareTo(BigDecimal.ZERO) > 0
+                        ? totalValue.divide(totalQuantity, 2, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO;
+
+                result.add(CategoryVolumeReportDto.builder()
+                        .categoryId(category.getCategoryId())
+                        .categoryName(category.getName())
+                        .month(entry.getKey())
+                        .quantitySoldOrPurchased(totalQuantity)
+                        .averageUnitPrice(avgUnitPrice)
+                        .totalValue(totalValue)
+                        .build());
             }
         }
 
@@ -637,6 +687,6 @@ public class ReportService {
         log.info("Category volume report generated - [year={}, type={}, recordsCount={}]",
                 targetYear, reportType, result.size());
 
-        return result;
+        return Collections.unmodifiableList(result);
     }
 }
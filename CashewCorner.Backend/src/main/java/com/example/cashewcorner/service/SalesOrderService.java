@@ -5,17 +5,30 @@ import com.example.cashewcorner.entity.Customer;
 import com.example.cashewcorner.entity.Product;
 import com.example.cashewcorner.entity.SalesOrder;
 import com.example.cashewcorner.entity.SalesOrderItem;
+import com.example.cashewcorner.exception.ConflictException;
 import com.example.cashewcorner.exception.ResourceNotFoundException;
 import com.example.cashewcorner.repository.CustomerRepository;
 import com.example.cashewcorner.repository.ProductRepository;
 import com.example.cashewcorner.repository.SalesOrderRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,26 +36,173 @@ import java.util.stream.Collectors;
 @Transactional
 public class SalesOrderService {
 
+    private static final String STATUS_CANCELLED = "cancelled";
+    private static final String STATUS_DELIVERED = "delivered";
+    private static final Map<String, Set<String>> STATUS_TRANSITIONS = Map.of(
+            "pending", Set.of("confirmed", STATUS_DELIVERED, STATUS_CANCELLED),
+            "confirmed", Set.of(STATUS_DELIVERED, STATUS_CANCELLED));
+
     private final SalesOrderRepository salesOrderRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final DocumentNumberService documentNumberService;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate orderTransaction;
+    private final TransactionTemplate batchTransaction;
+    private final int batchChunkSize;
 
     public SalesOrderService(SalesOrderRepository salesOrderRepository,
                             CustomerRepository customerRepository,
-                            ProductRepository productRepository) {
+                            ProductRepository productRepository,
+                            MonthlyRollupService monthlyRollupService,
+                            DocumentNumberService documentNumberService,
+                            StockReservationService stockReservationService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${orders.batch.chunk-size:100}") int batchChunkSize) {
         this.salesOrderRepository = salesOrderRepository;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
+        this.monthlyRollupService = monthlyRollupService;
+        this.documentNumberService = documentNumberService;
+        this.stockReservationService = stockReservationService;
+        this.orderTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchChunkSize = Math.max(1, batchChunkSize);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SalesOrderDto createSalesOrder(CreateSalesOrderRequestDto request) {
         log.info("Creating sales order - [customerId={}]", request.getCustomerId());
 
-        Customer customer = customerRepository.findByCustomerIdAndIsActiveTrue(request.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
+        // Numbered before the order transaction so a block refill never needs a second connection
+        String soNumber = generateSoNumber();
+
+        return orderTransaction.execute(status -> {
+            Customer customer = customerRepository.findByCustomerIdAndIsActiveTrue(request.getCustomerId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
+
+            SalesOrder salesOrder = buildSalesOrder(request, soNumber, customer, productId ->
+                    productRepository.findByProductIdAndIsActiveTrue(productId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId)));
+
+            salesOrder = salesOrderRepository.save(salesOrder);
+            String shortage = stockReservationService.reserve(salesOrder);
+            if (shortage != null) {
+                throw new ConflictException(shortage);
+            }
+            monthlyRollupService.recordSalesOrder(salesOrder);
+
+            log.info("Sales order created successfully - [soNumber={}, totalAmount={}]", 
+                    salesOrder.getSoNumber(), salesOrder.getTotalAmount());
+
+            return mapToDto(salesOrder);
+        });
+    }
+
+    /**
+     * Create many sales orders in one call.
+     * Customers and products are resolved with one IN query each; orders referencing an
+     * unknown or inactive one, or whose stock cannot be reserved, are rejected individually.
+     * The rest are inserted in chunks, each chunk in its own transaction with JDBC-batched
+     * inserts. A chunk that fails to commit marks all of its orders failed; chunks committed
+     * before it are kept.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SalesOrderBatchResultDto createSalesOrdersBatch(List<CreateSalesOrderRequestDto> requests) {
+        log.info("Creating sales order batch - [orders={}, chunkSize={}]", requests.size(), batchChunkSize);
+
+        Set<Long> customerIds = requests.stream()
+                .map(CreateSalesOrderRequestDto::getCustomerId)
+                .collect(Collectors.toSet());
+        Set<Long> productIds = requests.stream()
+                .flatMap(request -> request.getItems().stream())
+                .map(SalesOrderItemRequestDto::getProductId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Customer> customers = customerRepository.findByCustomerIdInAndIsActiveTrue(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getCustomerId, Function.identity()));
+        Map<Long, Product> products = productRepository.findByProductIdInAndIsActiveTrue(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        SalesOrderBatchEntryDto[] results = new SalesOrderBatchEntryDto[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validateBatchOrder(requests.get(i), customers, products);
+            if (error != null) {
+                results[i] = batchFailure(i, error);
+            } else {
+                accepted.add(i);
+            }
+        }
 
+        for (int from = 0; from < accepted.size(); from += batchChunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + batchChunkSize, accepted.size()));
+            Map<Integer, String> shortages = new HashMap<>();
+            Map<Integer, String> soNumbers = new HashMap<>();
+            chunk.forEach(index -> soNumbers.put(index, generateSoNumber()));
+            try {
+                Map<Integer, SalesOrder> saved = batchTransaction.execute(status -> {
+                    List<SalesOrder> orders = new ArrayList<>(chunk.size());
+                    for (Integer index : chunk) {
+                        CreateSalesOrderRequestDto request = requests.get(index);
+                        orders.add(salesOrderRepository.save(
+                                buildSalesOrder(request, soNumbers.get(index), customers.get(request.getCustomerId()),
+                                        products::get)));
+                    }
+
+                    // One pass over the whole chunk, so inventory rows are locked in a global order
+                    Map<Integer, String> failed = stockReservationService.reserveAll(orders);
+                    Map<Integer, SalesOrder> persisted = new LinkedHashMap<>();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        String shortage = failed.get(i);
+                        if (shortage != null) {
+                            // Its partial reservations were already handed back
+                            salesOrderRepository.delete(orders.get(i));
+                            shortages.put(chunk.get(i), shortage);
+                        } else {
+                            persisted.put(chunk.get(i), orders.get(i));
+                        }
+                    }
+                    monthlyRollupService.recordSalesOrders(persisted.values());
+                    return persisted;
+                });
+
+                shortages.forEach((index, shortage) -> results[index] = batchFailure(index, shortage));
+                saved.forEach((index, order) -> results[index] = SalesOrderBatchEntryDto.builder()
+                        .index(index)
+                        .success(true)
+                        .salesOrderId(order.getSalesOrderId())
+                        .soNumber(order.getSoNumber())
+                        .totalAmount(order.getTotalAmount())
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("Sales order batch chunk failed - [firstIndex={}, size={}, error={}]",
+                        chunk.get(0), chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    results[index] = batchFailure(index, "Could not be saved: " + e.getMessage());
+                }
+            }
+        }
+
+        List<SalesOrderBatchEntryDto> entries = Arrays.asList(results);
+        int created = (int) entries.stream().filter(SalesOrderBatchEntryDto::getSuccess).count();
+
+        log.info("Sales order batch completed - [requested={}, created={}, failed={}]",
+                requests.size(), created, requests.size() - created);
+
+        return SalesOrderBatchResultDto.builder()
+                .requested(requests.size())
+                .created(created)
+                .failed(requests.size() - created)
+                .results(entries)
+                .build();
+    }
+
+    private SalesOrder buildSalesOrder(CreateSalesOrderRequestDto request, String soNumber, Customer customer,
+                                       Function<Long, Product> productLookup) {
         SalesOrder salesOrder = SalesOrder.builder()
-                .soNumber(generateSoNumber())
+                .soNumber(soNumber)
                 .customer(customer)
                 .orderDate(request.getOrderDate())
                 .deliveryDate(request.getDeliveryDate())
@@ -53,11 +213,8 @@ public class SalesOrderService {
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (SalesOrderItemRequestDto itemRequest : request.getItems()) {
-            Product product = productRepository.findByProductIdAndIsActiveTrue(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemRequest.getProductId()));
-
             SalesOrderItem item = SalesOrderItem.builder()
-                    .product(product)
+                    .product(productLookup.apply(itemRequest.getProductId()))
                     .quantity(itemRequest.getQuantity())
                     .unitPrice(itemRequest.getUnitPrice())
                     .build();
@@ -67,11 +224,59 @@ public class SalesOrderService {
         }
 
         salesOrder.setTotalAmount(totalAmount);
-        salesOrder = salesOrderRepository.save(salesOrder);
+        return salesOrder;
+    }
 
-        log.info("Sales order created successfully - [soNumber={}, totalAmount={}]", 
-                salesOrder.getSoNumber(), salesOrder.getTotalAmount());
+    private static String validateBatchOrder(CreateSalesOrderRequestDto request, Map<Long, Customer> customers,
+                                             Map<Long, Product> products) {
+        if (!customers.containsKey(request.getCustomerId())) {
+            return "Customer not found with id: " + request.getCustomerId();
+        }
+        for (SalesOrderItemRequestDto item : request.getItems()) {
+            if (!products.containsKey(item.getProductId())) {
+                return "Product not found with id: " + item.getProductId();
+            }
+        }
+        return null;
+    }
+
+    private static SalesOrderBatchEntryDto batchFailure(int index, String error) {
+        return SalesOrderBatchEntryDto.builder()
+                .index(index)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Move a sales order to a new status: pending -> confirmed -> delivered, or cancelled
+     * from either open state. Cancelling releases the order's stock reservations and
+     * delivering consumes them. The status is switched with a conditional update, so of
+     * two concurrent transitions from the same status only one goes through.
+     */
+    public SalesOrderDto updateSalesOrderStatus(Long salesOrderId, String status) {
+        log.info("Updating sales order status - [salesOrderId={}, status={}]", salesOrderId, status);
+
+        SalesOrder salesOrder = salesOrderRepository.findBySalesOrderIdAndIsActiveTrue(salesOrderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sales order not found with id: " + salesOrderId));
+
+        String current = salesOrder.getStatus();
+        String target = status.trim().toLowerCase(Locale.ROOT);
+        if (!STATUS_TRANSITIONS.getOrDefault(String.valueOf(current), Set.of()).contains(target)) {
+            throw new IllegalArgumentException("Cannot change sales order status from " + current + " to " + target);
+        }
+        if (salesOrderRepository.updateStatus(salesOrderId, current, target) != 1) {
+            throw new ConflictException("Sales order " + salesOrder.getSoNumber() + " was changed concurrently");
+        }
+
+        if (STATUS_CANCELLED.equals(target)) {
+            stockReservationService.release(salesOrder);
+        } else if (STATUS_DELIVERED.equals(target)) {
+            stockReservationService.consume(salesOrder);
+        }
+        salesOrder.setStatus(target);
 
+        log.info("Sales order status updated - [soNumber={}, from={}, to={}]", salesOrder.getSoNumber(), current, target);
         return mapToDto(salesOrder);
     }
 
@@ -83,6 +288,19 @@ public class SalesOrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<SalesOrderDto> getSalesOrdersPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching sales order page - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(salesOrderRepository.findActivePage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, SalesOrder::getSalesOrderId, this::mapToDto);
+    }
+
     @Transactional(readOnly = true)
     public SalesOrderDto getSalesOrderById(Long salesOrderId) {
         log.info("Fetching sales order - [salesOrderId={}]", salesOrderId);
@@ -100,16 +318,10 @@ public class SalesOrderService {
     }
 
     private String generateSoNumber() {
-        String year = String.valueOf(Year.now().getValue());
-        String latestSoNumber = salesOrderRepository.findLatestSoNumberForYear(year);
-
-        int nextNumber = 1;
-        if (latestSoNumber != null) {
-            String numberPart = latestSoNumber.substring(6);
-            nextNumber = Integer.parseInt(numberPart) + 1;
-        }
-
-        return String.format("SO%s%04d", year, nextNumber);
+        return documentNumberService.nextNumber("SO", year -> {
+            String latest = salesOrderRepository.findLatestSoNumberForYear(String.valueOf(year));
+            return latest != null ? Long.parseLong(latest.substring(6)) : 0L;
+        });
     }
 
     private SalesOrderDto mapToDto(SalesOrder order) {
@@ -0,0 +1,111 @@
+package com.example.cashewcorner.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves stock movements older than inventory.movements.archive.retention-days from
+ * stock_movements to stock_movements_archive, so the live ledger (and its date-ordered
+ * indexes) only holds recent history. Off by default: the stock movement endpoints only
+ * read stock_movements, so archived rows drop out of them.
+ * <p>
+ * Rows move in batches of the oldest movements, read through the movement_date index;
+ * each batch is copied and deleted by id in its own transaction, so the job never holds
+ * locks on more than one batch and a failure leaves every row in exactly one of the two
+ * tables.
+ */
+@Slf4j
+@Service
+public class StockMovementArchiveService {
+
+    private static final String SELECT_BATCH_SQL =
+            "SELECT movement_id FROM stock_movements WHERE movement_date < ? " +
+            "ORDER BY movement_date, movement_id LIMIT ?";
+
+    private static final String COPY_SQL =
+            "INSERT INTO stock_movements_archive (movement_id, product_id, movement_type, related_type, related_id, " +
+            "quantity, balance_after, movement_date, created_by, notes) " +
+            "SELECT movement_id, product_id, movement_type, related_type, related_id, " +
+            "quantity, balance_after, movement_date, created_by, notes " +
+            "FROM stock_movements WHERE movement_id IN (%s)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM stock_movements WHERE movement_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public StockMovementArchiveService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${inventory.movements.archive.retention-days:0}") int retentionDays,
+                                       @Value("${inventory.movements.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Archive every movement older than the retention period. A retention of 0 or less
+     * turns archiving off.
+     *
+     * @return number of movements moved
+     */
+    @Scheduled(fixedDelayString = "${inventory.movements.archive.interval-ms:3600000}",
+               initialDelayString = "${inventory.movements.archive.interval-ms:3600000}")
+    public int archiveOldMovements() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+
+        int archived = 0;
+        while (true) {
+            Integer moved = batchTransaction.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+        }
+
+        if (archived > 0) {
+            log.info("Stock movements archived - [archived={}, cutoff={}]", archived, cutoff);
+        }
+        return archived;
+    }
+
+    /**
+     * Copy the oldest batch of expired movements to the archive and delete them by id.
+     *
+     * @return number of movements moved (0 when none are left)
+     */
+    private int archiveBatch(Timestamp cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH_SQL, Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+
+        int copied = jdbcTemplate.update(String.format(COPY_SQL, placeholders), args);
+        int deleted = jdbcTemplate.update(String.format(DELETE_SQL, placeholders), args);
+        if (copied != deleted) {
+            // Rolls the batch back; the next run tries again
+            throw new IllegalStateException("Stock movement archive batch changed while moving: copied "
+                    + copied + ", deleted " + deleted);
+        }
+        return deleted;
+    }
+}
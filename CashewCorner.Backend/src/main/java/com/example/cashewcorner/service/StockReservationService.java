@@ -0,0 +1,223 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.entity.SalesOrder;
+import com.example.cashewcorner.entity.SalesOrderItem;
+import com.example.cashewcorner.entity.StockMovement;
+import com.example.cashewcorner.entity.StockReservation;
+import com.example.cashewcorner.exception.ConflictException;
+import com.example.cashewcorner.repository.InventoryRepository;
+import com.example.cashewcorner.repository.StockMovementRepository;
+import com.example.cashewcorner.repository.StockReservationRepository;
+import com.example.cashewcorner.repository.projection.InventoryAvailabilityProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Holds stock for sales orders.
+ * Every change to inventory.reserved_quantity is a single conditional UPDATE (reserve only
+ * if enough is unreserved, release/consume only what is reserved), so concurrent orders
+ * for the same product and location never read-modify-write the row; a lost race just
+ * shows up as 0 updated rows. Each UPDATE still row-locks the location until the order
+ * commits and a concurrent order waits for it, so locations are always claimed in
+ * (product id, inventory id) order, within an order and across a batch of orders, to
+ * keep two transactions from deadlocking.
+ */
+@Slf4j
+@Service
+@Transactional
+public class StockReservationService {
+
+    /**
+     * Times the locations of a product are re-read when concurrent orders take the stock
+     * that was seen as available.
+     */
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StockReservationService(InventoryRepository inventoryRepository,
+                                   StockReservationRepository stockReservationRepository,
+                                   StockMovementRepository stockMovementRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.inventoryRepository = inventoryRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reserve stock for every line of a saved sales order, spreading a line over several
+     * locations when one does not hold enough. If any product is short, whatever this call
+     * already reserved is handed back, so the order holds either everything or nothing.
+     * Returns the shortage instead of throwing so a caller can drop one order and keep
+     * its transaction going.
+     *
+     * @param order sales order with its items, already saved
+     * @return null when the whole order is reserved, otherwise why it could not be
+     */
+    public String reserve(SalesOrder order) {
+        return reserveAll(List.of(order)).get(0);
+    }
+
+    /**
+     * Reserve stock for several saved sales orders in the caller's transaction, each order
+     * all or nothing as in {@link #reserve}. Locations are claimed in (product id,
+     * inventory id) order across all the orders, so a batch locks inventory rows in the
+     * same order as a single order and the two cannot deadlock. A short order hands back
+     * what it claimed; orders that claimed the same product before it did may have seen
+     * less stock than they would have on their own.
+     *
+     * @param orders sales orders with their items, already saved
+     * @return why each order that could not be reserved failed, by its position in orders;
+     *         orders not in the map are fully reserved
+     */
+    public Map<Integer, String> reserveAll(List<SalesOrder> orders) {
+        Map<Long, Map<Integer, BigDecimal>> required = new TreeMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (int index = 0; index < orders.size(); index++) {
+            for (SalesOrderItem item : orders.get(index).getItems()) {
+                Long productId = item.getProduct().getProductId();
+                required.computeIfAbsent(productId, id -> new TreeMap<>())
+                        .merge(index, item.getQuantity(), BigDecimal::add);
+                products.putIfAbsent(productId, item.getProduct());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<List<StockReservation>> reservations = new ArrayList<>(orders.size());
+        orders.forEach(order -> reservations.add(new ArrayList<>()));
+        Map<Integer, String> shortages = new HashMap<>();
+        for (Map.Entry<Long, Map<Integer, BigDecimal>> product : required.entrySet()) {
+            for (Map.Entry<Integer, BigDecimal> line : product.getValue().entrySet()) {
+                int index = line.getKey();
+                if (shortages.containsKey(index)) {
+                    continue;
+                }
+                SalesOrder order = orders.get(index);
+                List<StockReservation> claimed = reservations.get(index);
+                BigDecimal shortBy = claim(order, products.get(product.getKey()), line.getValue(), now, claimed);
+                if (shortBy.signum() > 0) {
+                    // Rows this order claimed are already locked by this transaction
+                    for (StockReservation reservation : claimed) {
+                        inventoryRepository.releaseReserved(reservation.getInventory().getInventoryId(),
+                                reservation.getQuantity(), now);
+                    }
+                    claimed.clear();
+                    log.info("Stock reservation failed - [soNumber={}, productId={}, shortBy={}]",
+                            order.getSoNumber(), product.getKey(), shortBy);
+                    shortages.put(index, "Insufficient stock for product " + product.getKey() + ". Short by: " + shortBy);
+                }
+            }
+        }
+
+        List<StockReservation> reserved = reservations.stream().flatMap(List::stream).toList();
+        if (!reserved.isEmpty()) {
+            stockReservationRepository.saveAll(reserved);
+            eventPublisher.publishEvent(new InventoryChangedEvent(required.keySet()));
+        }
+        log.info("Stock reserved - [orders={}, failed={}, reservations={}]",
+                orders.size(), shortages.size(), reserved.size());
+        return shortages;
+    }
+
+    /**
+     * Hand back the stock still reserved for a cancelled order.
+     */
+    public void release(SalesOrder order) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> productIds = new HashSet<>();
+        for (StockReservation reservation : stockReservationRepository
+                .findBySalesOrderAndStatus(order.getSalesOrderId(), StockReservation.STATUS_RESERVED)) {
+            if (stockReservationRepository.closeReservation(reservation.getReservationId(),
+                    StockReservation.STATUS_RELEASED, now) == 1) {
+                inventoryRepository.releaseReserved(reservation.getInventory().getInventoryId(),
+                        reservation.getQuantity(), now);
+                productIds.add(reservation.getProduct().getProductId());
+            }
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(productIds));
+        log.info("Stock reservations released - [soNumber={}, products={}]", order.getSoNumber(), productIds.size());
+    }
+
+    /**
+     * Ship the stock reserved for a delivered order: it leaves both on-hand and reserved
+     * quantities, and each location gets a SALE stock movement.
+     *
+     * @throws ConflictException if a location no longer holds the reserved quantity
+     */
+    public void consume(SalesOrder order) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> productIds = new HashSet<>();
+        for (StockReservation reservation : stockReservationRepository
+                .findBySalesOrderAndStatus(order.getSalesOrderId(), StockReservation.STATUS_RESERVED)) {
+            if (stockReservationRepository.closeReservation(reservation.getReservationId(),
+                    StockReservation.STATUS_CONSUMED, now) != 1) {
+                continue;
+            }
+            Long inventoryId = reservation.getInventory().getInventoryId();
+            if (inventoryRepository.consumeReserved(inventoryId, reservation.getQuantity(), now) != 1) {
+                throw new ConflictException("Reserved stock is no longer on hand at inventory " + inventoryId);
+            }
+
+            stockMovementRepository.save(StockMovement.builder()
+                    .product(reservation.getProduct())
+                    .movementType("SALE")
+                    .relatedType("SALES_ORDER")
+                    .relatedId(order.getSalesOrderId())
+                    .quantity(reservation.getQuantity())
+                    .balanceAfter(inventoryRepository.findQuantityOnHand(inventoryId))
+                    .build());
+            productIds.add(reservation.getProduct().getProductId());
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(productIds));
+        log.info("Stock reservations consumed - [soNumber={}, products={}]", order.getSoNumber(), productIds.size());
+    }
+
+    /**
+     * Reserve up to the quantity across the product's locations, lowest inventory id first.
+     *
+     * @return the quantity that could not be reserved (zero on success)
+     */
+    private BigDecimal claim(SalesOrder order, Product product, BigDecimal quantity, LocalDateTime now,
+                             List<StockReservation> reservations) {
+        BigDecimal remaining = quantity;
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS && remaining.signum() > 0; attempt++) {
+            List<InventoryAvailabilityProjection> locations = inventoryRepository.findAvailableByProduct(product.getProductId());
+            if (locations.isEmpty()) {
+                break;
+            }
+            for (InventoryAvailabilityProjection location : locations) {
+                if (remaining.signum() <= 0) {
+                    break;
+                }
+                BigDecimal take = remaining.min(location.getAvailableQuantity());
+                if (inventoryRepository.reserve(location.getInventoryId(), take, now) == 1) {
+                    reservations.add(StockReservation.builder()
+                            .salesOrder(order)
+                            .inventory(inventoryRepository.getReferenceById(location.getInventoryId()))
+                            .product(product)
+                            .quantity(take)
+                            .build());
+                    remaining = remaining.subtract(take);
+                }
+            }
+        }
+        return remaining;
+    }
+}
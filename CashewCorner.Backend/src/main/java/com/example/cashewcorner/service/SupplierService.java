@@ -8,6 +8,7 @@ import com.example.cashewcorner.exception.ResourceNotFoundException;
 import com.example.cashewcorner.repository.PurchaseOrderRepository;
 import com.example.cashewcorner.repository.SupplierRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -105,6 +106,19 @@ public class SupplierService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<SupplierDto> getSuppliersPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("Fetching supplier page - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(supplierRepository.findActivePage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, Supplier::getSupplierId, this::mapToDto);
+    }
+
     @Transactional(readOnly = true)
     public SupplierDto getSupplierById(Long supplierId) {
         log.info("Fetching supplier - [supplierId={}]", supplierId);
@@ -153,9 +167,18 @@ public class SupplierService {
         List<Supplier> approvedSuppliers = supplierRepository.findApprovedSuppliers();
 
         List<SupplierRankingDto> rankings = new ArrayList<>();
+        if (approvedSuppliers.isEmpty()) {
+            return rankings;
+        }
+
+        // Load every approved supplier's orders in one query instead of one per supplier
+        Map<Long, List<PurchaseOrder>> ordersBySupplier = purchaseOrderRepository.findBySupplierIdInAndIsActiveTrue(
+                        approvedSuppliers.stream().map(Supplier::getSupplierId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(po -> po.getSupplier().getSupplierId()));
 
         for (Supplier supplier : approvedSuppliers) {
-            List<PurchaseOrder> orders = purchaseOrderRepository.findBySupplierIdAndIsActiveTrue(supplier.getSupplierId());
+            List<PurchaseOrder> orders = ordersBySupplier.getOrDefault(supplier.getSupplierId(), Collections.emptyList());
 
             if (orders.isEmpty()) {
                 continue;
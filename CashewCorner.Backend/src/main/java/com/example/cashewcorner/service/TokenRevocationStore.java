@@ -0,0 +1,34 @@
+package com.example.cashewcorner.service;
+
+import java.time.Instant;
+
+/**
+ * Store of revoked (logged out) JWTs.
+ * Entries are keyed by token id (jti) and only need to live until the token's own
+ * expiry, after which the token is rejected anyway and the entry can be purged.
+ * Selected with security.revocation.store: "memory" (default, single node) or
+ * "jdbc" (shared by all backend nodes through the revoked_tokens table).
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Revoke a token until its expiry.
+     *
+     * @param tokenId   the token id (jti)
+     * @param expiresAt the token's expiry
+     */
+    void revoke(String tokenId, Instant expiresAt);
+
+    /**
+     * Check whether a token has been revoked.
+     *
+     * @param tokenId the token id (jti)
+     * @return true if revoked and not yet expired
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Remove entries whose token has expired.
+     */
+    void purgeExpired();
+}
@@ -9,6 +9,7 @@ import com.example.cashewcorner.exception.UserNotFoundException;
 import com.example.cashewcorner.repository.RoleRepository;
 import com.example.cashewcorner.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,11 +30,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                       PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -108,6 +112,19 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated variant of the listing; pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserResponseDto> getUsersPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.resolveSize(size);
+        Long cursorId = CursorPageDto.decodeCursor(cursor);
+        log.info("User Page Request - Fetching users - [cursorId={}, size={}]", cursorId, pageSize);
+
+        return CursorPageDto.of(userRepository.findPage(cursorId, PageRequest.of(0, pageSize + 1)),
+                pageSize, User::getUserId, this::mapUserToResponseDto);
+    }
+
     /**
      * Update user information.
      *
@@ -157,6 +174,7 @@ public class UserService {
 
         // Save updated user
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getUsername());
 
         log.info("User Updated Successfully - [userId={}, fields={}]", userId, getUpdateFields(updateUserRequest));
 
@@ -181,6 +199,7 @@ public class UserService {
 
         user.setIsActive(false);
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
 
         log.info("User Deactivated Successfully - [userId={}, username={}]", userId, user.getUsername());
 
@@ -212,6 +231,7 @@ public class UserService {
 
         user.setIsActive(true);
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
 
         log.info("User Activated Successfully - [userId={}, username={}]", userId, user.getUsername());
 
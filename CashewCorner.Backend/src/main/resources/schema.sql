@@ -2,6 +2,13 @@
 -- Converted from MySQL schema for H2 compatibility
 
 -- Drop existing tables (order matters)
+DROP TABLE IF EXISTS stock_movements_archive;
+DROP TABLE IF EXISTS stock_reservations;
+DROP TABLE IF EXISTS id_generators;
+DROP TABLE IF EXISTS document_sequences;
+DROP TABLE IF EXISTS refresh_tokens;
+DROP TABLE IF EXISTS revoked_tokens;
+DROP TABLE IF EXISTS monthly_product_rollups;
 DROP TABLE IF EXISTS product_category_map;
 DROP TABLE IF EXISTS product_categories;
 DROP TABLE IF EXISTS stock_movements;
@@ -168,6 +175,7 @@ CREATE TABLE purchase_orders (
 
 CREATE INDEX idx_po_order_date ON purchase_orders(order_date);
 CREATE INDEX idx_po_number ON purchase_orders(po_number);
+CREATE INDEX idx_po_created_active ON purchase_orders(created_at, is_active);
 
 -- Purchase Order Items
 CREATE TABLE purchase_order_items (
@@ -211,6 +219,7 @@ CREATE TABLE sales_orders (
 
 CREATE INDEX idx_so_order_date ON sales_orders(order_date);
 CREATE INDEX idx_so_number ON sales_orders(so_number);
+CREATE INDEX idx_so_created_active ON sales_orders(created_at, is_active);
 
 -- Sales Order Items
 CREATE TABLE sales_order_items (
@@ -262,8 +271,9 @@ CREATE TABLE stock_movements (
   CONSTRAINT fk_sm_created_by FOREIGN KEY (created_by) REFERENCES users(user_id) ON UPDATE CASCADE ON DELETE SET NULL
 );
 
-CREATE INDEX idx_sm_product ON stock_movements(product_id);
-CREATE INDEX idx_stock_movements_product ON stock_movements(product_id);
+CREATE INDEX idx_sm_product_date ON stock_movements(product_id, movement_date);
+CREATE INDEX idx_sm_type_date ON stock_movements(movement_type, movement_date);
+CREATE INDEX idx_sm_date ON stock_movements(movement_date);
 
 -- Employees
 CREATE TABLE employees (
@@ -356,11 +366,126 @@ CREATE TABLE reports (
   generated_by BIGINT DEFAULT NULL,
   generated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   file_path VARCHAR(500) DEFAULT NULL,
+  status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+  completed_at TIMESTAMP NULL DEFAULT NULL,
+  error_message VARCHAR(1000) DEFAULT NULL,
   PRIMARY KEY (report_id),
   CONSTRAINT fk_reports_generated_by FOREIGN KEY (generated_by) REFERENCES users(user_id) ON UPDATE CASCADE ON DELETE SET NULL
 );
 
 CREATE INDEX fk_reports_generated_by ON reports(generated_by);
+CREATE INDEX idx_reports_status ON reports(status);
+
+-- Monthly rollups (per product, per month, SALES or PURCHASE)
+-- Maintained incrementally when orders are created; rebuildable per year
+CREATE TABLE monthly_product_rollups (
+  rollup_id BIGINT AUTO_INCREMENT NOT NULL,
+  rollup_type VARCHAR(20) NOT NULL,
+  product_id BIGINT NOT NULL,
+  rollup_year INT NOT NULL,
+  rollup_month INT NOT NULL,
+  total_quantity DECIMAL(20,4) NOT NULL DEFAULT 0.0000,
+  total_value DECIMAL(24,6) NOT NULL DEFAULT 0.000000,
+  min_unit_price DECIMAL(15,2) DEFAULT NULL,
+  max_unit_price DECIMAL(15,2) DEFAULT NULL,
+  price_sum DECIMAL(20,2) NOT NULL DEFAULT 0.00,
+  line_count BIGINT NOT NULL DEFAULT 0,
+  order_count BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (rollup_id),
+  UNIQUE (rollup_type, product_id, rollup_year, rollup_month),
+  CONSTRAINT fk_mpr_product FOREIGN KEY (product_id) REFERENCES products(product_id) ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+CREATE INDEX idx_mpr_type_year ON monthly_product_rollups(rollup_type, rollup_year);
+
+-- Revoked JWTs (logout), keyed by jti; rows can be purged once expires_at has passed
+CREATE TABLE revoked_tokens (
+  token_id VARCHAR(64) NOT NULL,
+  expires_at TIMESTAMP NOT NULL,
+  revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (token_id)
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens(expires_at);
+
+-- Refresh tokens (by jti), grouped into rotation families per login
+CREATE TABLE refresh_tokens (
+  token_id VARCHAR(64) NOT NULL,
+  family_id VARCHAR(64) NOT NULL,
+  user_id BIGINT NOT NULL,
+  issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  expires_at TIMESTAMP NOT NULL,
+  used_at TIMESTAMP DEFAULT NULL,
+  revoked BOOLEAN NOT NULL DEFAULT FALSE,
+  PRIMARY KEY (token_id),
+  CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens(expires_at);
+
+-- Document number sequences (next SO/PO number per prefix and year)
+CREATE TABLE document_sequences (
+  prefix VARCHAR(10) NOT NULL,
+  seq_year INT NOT NULL,
+  next_value BIGINT NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (prefix, seq_year)
+);
+
+-- Pooled id generators (Hibernate table generator) for entities inserted in JDBC batches.
+-- Hibernate hands out ids up to next_value and reserves the following block of 50, so
+-- each row must start above the table's current MAX(id) + 50.
+CREATE TABLE id_generators (
+  generator_name VARCHAR(64) NOT NULL,
+  next_value BIGINT NOT NULL,
+  PRIMARY KEY (generator_name)
+);
+
+INSERT INTO id_generators (generator_name, next_value) VALUES ('sales_orders', 51);
+INSERT INTO id_generators (generator_name, next_value) VALUES ('sales_order_items', 51);
+INSERT INTO id_generators (generator_name, next_value) VALUES ('purchase_orders', 51);
+INSERT INTO id_generators (generator_name, next_value) VALUES ('purchase_order_items', 51);
+INSERT INTO id_generators (generator_name, next_value) VALUES ('stock_movements', 51);
+
+-- Stock reservations (stock held for sales orders per inventory location)
+CREATE TABLE stock_reservations (
+  reservation_id BIGINT AUTO_INCREMENT NOT NULL,
+  sales_order_id BIGINT NOT NULL,
+  inventory_id BIGINT NOT NULL,
+  product_id BIGINT NOT NULL,
+  quantity DECIMAL(18,4) NOT NULL,
+  status VARCHAR(20) NOT NULL DEFAULT 'RESERVED',
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (reservation_id),
+  CONSTRAINT fk_sr_sales_order FOREIGN KEY (sales_order_id) REFERENCES sales_orders(sales_order_id) ON UPDATE CASCADE ON DELETE CASCADE,
+  CONSTRAINT fk_sr_inventory FOREIGN KEY (inventory_id) REFERENCES inventory(inventory_id) ON UPDATE CASCADE ON DELETE RESTRICT,
+  CONSTRAINT fk_sr_product FOREIGN KEY (product_id) REFERENCES products(product_id) ON UPDATE CASCADE ON DELETE RESTRICT
+);
+
+CREATE INDEX idx_sr_sales_order_status ON stock_reservations(sales_order_id, status);
+CREATE INDEX idx_sr_inventory ON stock_reservations(inventory_id);
+
+-- Stock movements archive (movements older than the retention period, moved out of stock_movements)
+CREATE TABLE stock_movements_archive (
+  movement_id BIGINT NOT NULL,
+  product_id BIGINT NOT NULL,
+  movement_type VARCHAR(50) NOT NULL,
+  related_type VARCHAR(50) DEFAULT NULL,
+  related_id BIGINT DEFAULT NULL,
+  quantity DECIMAL(18,4) NOT NULL,
+  balance_after DECIMAL(18,4) DEFAULT NULL,
+  movement_date TIMESTAMP NOT NULL,
+  created_by BIGINT DEFAULT NULL,
+  notes TEXT,
+  archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (movement_id)
+);
+
+CREATE INDEX idx_sma_product_date ON stock_movements_archive(product_id, movement_date);
+CREATE INDEX idx_sma_date ON stock_movements_archive(movement_date);
 
 -- End of schema
 
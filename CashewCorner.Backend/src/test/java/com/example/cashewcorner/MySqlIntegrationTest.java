@@ -0,0 +1,38 @@
+package com.example.cashewcorner;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Base class for tests that need the real schema: one MySQL container per test run,
+ * initialised from cashew-corner-mysql-dump.sql (schema plus seed data) and shared by
+ * every subclass. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("cashew_cornerdb")
+            .withUrlParam("useCursorFetch", "true")
+            .withUrlParam("rewriteBatchedStatements", "true")
+            .withCopyFileToContainer(MountableFile.forHostPath("cashew-corner-mysql-dump.sql"),
+                    "/docker-entrypoint-initdb.d/cashew-corner-mysql-dump.sql");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        // Started once and left to Testcontainers to stop, so cached contexts keep a live database
+        MYSQL.start();
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+}
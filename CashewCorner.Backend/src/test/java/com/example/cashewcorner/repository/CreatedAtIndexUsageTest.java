@@ -0,0 +1,123 @@
+package com.example.cashewcorner.repository;
+
+import com.example.cashewcorner.MySqlIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The created_at range scans (rollup rebuild per year, line export and count per period)
+ * must be served by the (created_at, is_active) indexes rather than a scan of the order
+ * tables. Orders are spread over twenty years so one year is selective enough for the
+ * optimizer to prefer the index, as it would be on production data.
+ */
+class CreatedAtIndexUsageTest extends MySqlIntegrationTest {
+
+    // Clear of the ids the table generators hand out
+    private static final long FIRST_ID = 900_000_000L;
+    private static final int ORDERS = 3000;
+    private static final int FIRST_YEAR = 2000;
+    private static final int YEARS = 20;
+
+    private static final LocalDateTime START = LocalDateTime.of(2010, 1, 1, 0, 0);
+    private static final LocalDateTime END = START.plusYears(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedOrders() {
+        List<Object[]> salesOrders = new ArrayList<>();
+        List<Object[]> salesItems = new ArrayList<>();
+        List<Object[]> purchaseOrders = new ArrayList<>();
+        List<Object[]> purchaseItems = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            long id = FIRST_ID + i;
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(FIRST_YEAR + i % YEARS, 1 + i % 12, 1, 12, 0));
+            salesOrders.add(new Object[]{id, "IDX-SO-" + id, createdAt, createdAt});
+            salesItems.add(new Object[]{id, id});
+            purchaseOrders.add(new Object[]{id, "IDX-PO-" + id, createdAt, createdAt});
+            purchaseItems.add(new Object[]{id, id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sales_orders (sales_order_id, so_number, customer_id, order_date, created_at) " +
+                "VALUES (?, ?, 1, ?, ?)", salesOrders);
+        jdbcTemplate.batchUpdate("INSERT INTO sales_order_items (sales_order_item_id, sales_order_id, product_id, quantity, unit_price) " +
+                "VALUES (?, ?, 1, 1, 10)", salesItems);
+        jdbcTemplate.batchUpdate("INSERT INTO purchase_orders (purchase_order_id, po_number, supplier_id, order_date, created_at) " +
+                "VALUES (?, ?, 1, ?, ?)", purchaseOrders);
+        jdbcTemplate.batchUpdate("INSERT INTO purchase_order_items (purchase_order_item_id, purchase_order_id, product_id, quantity, unit_price) " +
+                "VALUES (?, ?, 1, 1, 10)", purchaseItems);
+        jdbcTemplate.execute("ANALYZE TABLE sales_orders, sales_order_items, purchase_orders, purchase_order_items");
+    }
+
+    @AfterEach
+    void removeOrders() {
+        // Items go with their orders (ON DELETE CASCADE)
+        jdbcTemplate.update("DELETE FROM sales_orders WHERE sales_order_id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM purchase_orders WHERE purchase_order_id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void salesRollupRebuildUsesCreatedAtIndex() {
+        // The SELECT of MonthlyProductRollupRepository.rebuildSalesForYear
+        assertIndexUsed("SELECT soi.product_id, MONTH(so.created_at), SUM(soi.quantity), COUNT(*) " +
+                        "FROM sales_order_items soi " +
+                        "JOIN sales_orders so ON so.sales_order_id = soi.sales_order_id " +
+                        "WHERE so.is_active = TRUE AND so.created_at >= ? AND so.created_at < ? " +
+                        "GROUP BY soi.product_id, MONTH(so.created_at)",
+                "so", "idx_sales_orders_created_active");
+    }
+
+    @Test
+    void purchaseRollupRebuildUsesCreatedAtIndex() {
+        // The SELECT of MonthlyProductRollupRepository.rebuildPurchasesForYear
+        assertIndexUsed("SELECT poi.product_id, MONTH(po.created_at), SUM(poi.quantity), COUNT(*) " +
+                        "FROM purchase_order_items poi " +
+                        "JOIN purchase_orders po ON po.purchase_order_id = poi.purchase_order_id " +
+                        "WHERE po.is_active = TRUE AND po.created_at >= ? AND po.created_at < ? " +
+                        "GROUP BY poi.product_id, MONTH(po.created_at)",
+                "po", "idx_purchase_orders_created_active");
+    }
+
+    @Test
+    void salesLineExportUsesCreatedAtIndex() {
+        // The SQL of SalesOrderItemRepository.streamLinesByPeriod
+        assertIndexUsed("SELECT soi.sales_order_item_id, so.so_number, so.order_date, so.created_at, " +
+                        "c.customer_id, c.name, p.product_id, p.sku, p.name, soi.quantity, soi.unit_price " +
+                        "FROM sales_order_items soi " +
+                        "JOIN sales_orders so ON so.sales_order_id = soi.sales_order_id " +
+                        "JOIN customers c ON c.customer_id = so.customer_id " +
+                        "JOIN products p ON p.product_id = soi.product_id " +
+                        "WHERE so.created_at >= ? AND so.created_at < ? AND so.is_active = TRUE " +
+                        "ORDER BY so.created_at, soi.sales_order_item_id",
+                "so", "idx_sales_orders_created_active");
+    }
+
+    @Test
+    void salesLineCountUsesCreatedAtIndex() {
+        // The SQL of SalesOrderItemRepository.countByPeriod
+        assertIndexUsed("SELECT COUNT(*) FROM sales_order_items soi " +
+                        "JOIN sales_orders so ON so.sales_order_id = soi.sales_order_id " +
+                        "WHERE so.created_at >= ? AND so.created_at < ? AND so.is_active = TRUE",
+                "so", "idx_sales_orders_created_active");
+    }
+
+    private void assertIndexUsed(String sql, String tableAlias, String index) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql,
+                Timestamp.valueOf(START), Timestamp.valueOf(END));
+        assertThat(plan)
+                .filteredOn(row -> tableAlias.equals(row.get("table")))
+                .singleElement()
+                .satisfies(row -> assertThat(row.get("key")).as("index of %s in %s", tableAlias, plan).isEqualTo(index));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.repository.projection.ProductCategoryPairProjection;
+import com.example.cashewcorner.repository.projection.ProductMonthlyTotalProjection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryAggregationEngineTest {
+
+    private final CategoryAggregationEngine engine = CategoryAggregationEngine.fromMappings(List.of(
+            mapping(1L, 10L),
+            mapping(1L, 20L),
+            mapping(2L, 20L),
+            mapping(3L, 30L)));
+
+    @Test
+    void aggregateByCategoryAndMonthCountsProductInEachOfItsCategories() {
+        Map<Long, Map<Integer, CategoryAggregationEngine.Totals>> result = engine.aggregateByCategoryAndMonth(List.of(
+                row(1L, 1, "2", "20.00"),
+                row(1L, 2, "1", "10.00"),
+                row(2L, 1, "5", "7.50")));
+
+        assertThat(result).containsOnlyKeys(10L, 20L);
+        assertThat(result.get(10L)).containsOnlyKeys(1, 2);
+        assertTotals(result.get(10L).get(1), "2", "20.00");
+        assertTotals(result.get(10L).get(2), "1", "10.00");
+        assertThat(result.get(20L)).containsOnlyKeys(1, 2);
+        assertTotals(result.get(20L).get(1), "7", "27.50");
+        assertTotals(result.get(20L).get(2), "1", "10.00");
+    }
+
+    @Test
+    void aggregateByCategoryCombinesMonths() {
+        Map<Long, CategoryAggregationEngine.Totals> result = engine.aggregateByCategory(List.of(
+                row(1L, 1, "2", "20.00"),
+                row(1L, 2, "1", "10.00"),
+                row(3L, 12, "4", "100.00")));
+
+        assertThat(result).containsOnlyKeys(10L, 20L, 30L);
+        assertTotals(result.get(10L), "3", "30.00");
+        assertTotals(result.get(20L), "3", "30.00");
+        assertTotals(result.get(30L), "4", "100.00");
+    }
+
+    @Test
+    void rowsOfUncategorizedProductsAreSkipped() {
+        assertThat(engine.aggregateByCategory(List.of(row(99L, 1, "1", "1.00")))).isEmpty();
+        assertThat(engine.aggregateByCategoryAndMonth(List.of(row(99L, 1, "1", "1.00")))).isEmpty();
+    }
+
+    @Test
+    void nullTotalsAreTreatedAsZero() {
+        Map<Long, CategoryAggregationEngine.Totals> result = engine.aggregateByCategory(List.of(
+                row(3L, 1, null, "5.00"),
+                row(3L, 2, "2", null)));
+
+        assertTotals(result.get(30L), "2", "5.00");
+    }
+
+    private static void assertTotals(CategoryAggregationEngine.Totals totals, String quantity, String value) {
+        assertThat(totals.getQuantity()).isEqualByComparingTo(quantity);
+        assertThat(totals.getValue()).isEqualByComparingTo(value);
+    }
+
+    private static ProductCategoryPairProjection mapping(Long productId, Long categoryId) {
+        return new ProductCategoryPairProjection() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+        };
+    }
+
+    private static ProductMonthlyTotalProjection row(Long productId, Integer month, String quantity, String value) {
+        return new ProductMonthlyTotalProjection() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Integer getOrderMonth() {
+                return month;
+            }
+
+            @Override
+            public BigDecimal getTotalQuantity() {
+                return quantity != null ? new BigDecimal(quantity) : null;
+            }
+
+            @Override
+            public BigDecimal getTotalValue() {
+                return value != null ? new BigDecimal(value) : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.MySqlIntegrationTest;
+import com.example.cashewcorner.dto.AdjustStockRequestDto;
+import com.example.cashewcorner.dto.ReceiveStockRequestDto;
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent receipts and adjustments of one product at one location must neither lose
+ * an update nor record a balance that no serial order of the changes would produce.
+ */
+class InventoryConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 30;
+    private static final BigDecimal OPENING_STOCK = new BigDecimal("1000");
+    private static final String LOCATION = "Stress Test Warehouse";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReceivesAndAdjustmentsKeepQuantityAndLedgerConsistent() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Long productId = productRepository.save(Product.builder()
+                .sku("ST-" + run)
+                .name("Stress test product " + run)
+                .build()).getProductId();
+        inventoryService.receiveStock(receive(productId, OPENING_STOCK));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<BigDecimal>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(() -> {
+                start.await();
+                BigDecimal change = BigDecimal.ZERO;
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    switch (i % 3) {
+                        case 0 -> {
+                            inventoryService.receiveStock(receive(productId, new BigDecimal("3")));
+                            change = change.add(new BigDecimal("3"));
+                        }
+                        case 1 -> {
+                            inventoryService.adjustStock(adjust(productId, "ADD", new BigDecimal("2")));
+                            change = change.add(new BigDecimal("2"));
+                        }
+                        default -> {
+                            inventoryService.adjustStock(adjust(productId, "REMOVE", new BigDecimal("4")));
+                            change = change.subtract(new BigDecimal("4"));
+                        }
+                    }
+                }
+                return change;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        BigDecimal expected = OPENING_STOCK;
+        try {
+            List<Future<BigDecimal>> results = new ArrayList<>();
+            workers.forEach(worker -> results.add(pool.submit(worker)));
+            start.countDown();
+            for (Future<BigDecimal> result : results) {
+                expected = expected.add(result.get(2, TimeUnit.MINUTES));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        BigDecimal onHand = jdbcTemplate.queryForObject(
+                "SELECT quantity_on_hand FROM inventory WHERE product_id = ? AND location = ?",
+                BigDecimal.class, productId, LOCATION);
+        assertThat(onHand).isEqualByComparingTo(expected);
+
+        // Every movement must start from the opening balance (zero) or from the balance another
+        // movement ended at, and each balance can be started from only as often as it was reached
+        List<Map<String, Object>> movements = jdbcTemplate.queryForList(
+                "SELECT movement_type, quantity, balance_after FROM stock_movements WHERE product_id = ?", productId);
+        assertThat(movements).hasSize(1 + THREADS * OPERATIONS_PER_THREAD);
+
+        Map<BigDecimal, Integer> reached = new HashMap<>();
+        Map<BigDecimal, Integer> startedFrom = new HashMap<>();
+        reached.merge(key(BigDecimal.ZERO), 1, Integer::sum);
+        for (Map<String, Object> movement : movements) {
+            BigDecimal quantity = (BigDecimal) movement.get("quantity");
+            BigDecimal after = (BigDecimal) movement.get("balance_after");
+            BigDecimal signed = "ADJUSTMENT_OUT".equals(movement.get("movement_type")) ? quantity.negate() : quantity;
+            reached.merge(key(after), 1, Integer::sum);
+            startedFrom.merge(key(after.subtract(signed)), 1, Integer::sum);
+        }
+        // The final balance is reached once more than it is started from
+        startedFrom.merge(key(onHand), 1, Integer::sum);
+        assertThat(startedFrom).isEqualTo(reached);
+    }
+
+    private static BigDecimal key(BigDecimal value) {
+        return value.stripTrailingZeros();
+    }
+
+    private static ReceiveStockRequestDto receive(Long productId, BigDecimal quantity) {
+        return ReceiveStockRequestDto.builder()
+                .productId(productId)
+                .location(LOCATION)
+                .quantity(quantity)
+                .build();
+    }
+
+    private static AdjustStockRequestDto adjust(Long productId, String type, BigDecimal quantity) {
+        return AdjustStockRequestDto.builder()
+                .productId(productId)
+                .location(LOCATION)
+                .adjustmentType(type)
+                .quantity(quantity)
+                .build();
+    }
+}
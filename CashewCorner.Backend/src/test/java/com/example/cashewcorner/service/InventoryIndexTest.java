@@ -0,0 +1,132 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.entity.Inventory;
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The index against a mocked repository, with refreshes run on the calling thread.
+ */
+class InventoryIndexTest {
+
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final InventoryStreamService inventoryStreamService = mock(InventoryStreamService.class);
+    private final InventoryIndex index = new InventoryIndex(inventoryRepository, inventoryStreamService, Runnable::run);
+
+    @Test
+    void readsFallBackToDatabaseUntilFirstRebuild() {
+        when(inventoryRepository.findAll()).thenReturn(List.of(inventory(1L, 1L, "A", "5", "10")));
+        when(inventoryRepository.findLowStockItems()).thenReturn(List.of(inventory(1L, 1L, "A", "5", "10")));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.getAll()).extracting(InventorySnapshot::getInventoryId).containsExactly(1L);
+        assertThat(index.getLowStock()).extracting(InventorySnapshot::getInventoryId).containsExactly(1L);
+        verify(inventoryRepository).findAll();
+        verify(inventoryRepository).findLowStockItems();
+    }
+
+    @Test
+    void rebuildServesRowsByProductAndLocation() {
+        when(inventoryRepository.findAllWithProduct()).thenReturn(List.of(
+                inventory(3L, 2L, "A", "1", "10"),
+                inventory(2L, 1L, "B", "1", "10"),
+                inventory(1L, 1L, "A", "1", "10")));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.getAll())
+                .extracting(InventorySnapshot::getProductId, InventorySnapshot::getLocation)
+                .containsExactly(tuple(1L, "A"), tuple(1L, "B"), tuple(2L, "A"));
+        index.getLowStock();
+        verify(inventoryRepository, never()).findAll();
+        verify(inventoryRepository, never()).findLowStockItems();
+    }
+
+    @Test
+    void lowStockIsOrderedByStockRatioAndStopsAtReorderLevel() {
+        when(inventoryRepository.findAllWithProduct()).thenReturn(List.of(
+                inventory(1L, 1L, "A", "5", "10"),
+                inventory(2L, 2L, "A", "10", "10"),
+                inventory(3L, 3L, "A", "2", "10"),
+                inventory(4L, 4L, "A", "11", "10"),
+                inventory(5L, 5L, "A", "0", null)));
+
+        index.rebuild();
+
+        // At the reorder level counts as low; above it, or with no reorder level, doesn't
+        assertThat(index.getLowStock())
+                .extracting(InventorySnapshot::getInventoryId)
+                .containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void refreshReplacesOnlyTheChangedProductsRows() {
+        when(inventoryRepository.findAllWithProduct()).thenReturn(List.of(
+                inventory(1L, 1L, "A", "5", "10"),
+                inventory(2L, 1L, "B", "5", "10"),
+                inventory(3L, 2L, "A", "5", "10")));
+        index.rebuild();
+
+        // Location B of product 1 is gone and A has moved; product 2 is not re-read
+        when(inventoryRepository.findByProductIdsWithProduct(anyCollection()))
+                .thenReturn(List.of(inventory(1L, 1L, "A", "7", "10")));
+        index.onInventoryChanged(InventoryChangedEvent.of(1L));
+
+        assertThat(index.getAll())
+                .extracting(InventorySnapshot::getInventoryId, InventorySnapshot::getQuantityOnHand)
+                .containsExactly(tuple(1L, new BigDecimal("7.0000")), tuple(3L, new BigDecimal("5.0000")));
+        assertThat(index.getLowStock())
+                .extracting(InventorySnapshot::getInventoryId)
+                .containsExactly(3L, 1L);
+        verify(inventoryStreamService).publish(argThat(changed ->
+                changed.size() == 1 && changed.get(0).getInventoryId() == 1L));
+    }
+
+    @Test
+    void refreshDuringRebuildIsReappliedOverTheBulkLoad() {
+        when(inventoryRepository.findByProductIdsWithProduct(anyCollection()))
+                .thenReturn(List.of(inventory(1L, 1L, "A", "8", "10")));
+        // A change commits while the bulk load is reading, which returned the older quantity
+        when(inventoryRepository.findAllWithProduct()).thenAnswer(invocation -> {
+            index.onInventoryChanged(InventoryChangedEvent.of(1L));
+            return List.of(inventory(1L, 1L, "A", "3", "10"));
+        });
+
+        index.rebuild();
+
+        assertThat(index.getAll())
+                .extracting(InventorySnapshot::getQuantityOnHand)
+                .containsExactly(new BigDecimal("8.0000"));
+        verify(inventoryRepository, times(2)).findByProductIdsWithProduct(anyCollection());
+    }
+
+    private static Inventory inventory(Long inventoryId, Long productId, String location,
+                                       String onHand, String reorderLevel) {
+        return Inventory.builder()
+                .inventoryId(inventoryId)
+                .product(Product.builder()
+                        .productId(productId)
+                        .sku("SKU-" + productId)
+                        .name("Product " + productId)
+                        .reorderLevel(reorderLevel != null ? new BigDecimal(reorderLevel) : null)
+                        .build())
+                .location(location)
+                .quantityOnHand(new BigDecimal(onHand))
+                .build();
+    }
+}
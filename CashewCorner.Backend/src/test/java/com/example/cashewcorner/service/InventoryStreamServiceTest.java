@@ -0,0 +1,155 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.entity.Inventory;
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A client that stops reading must not hold up the others, and its blocked drain thread
+ * must keep its slot until the write returns so the executor is never short of threads.
+ */
+class InventoryStreamServiceTest {
+
+    private static final int MAX_SUBSCRIBERS = 2;
+    private static final long SEND_TIMEOUT_MS = 50;
+
+    private final ThreadPoolTaskExecutor executor = executor();
+    private final Queue<SseEmitter> emitters = new ArrayDeque<>();
+    private final InventoryStreamService service =
+            new InventoryStreamService(executor, 16, MAX_SUBSCRIBERS, 60_000, SEND_TIMEOUT_MS) {
+                @Override
+                SseEmitter newEmitter() {
+                    return emitters.remove();
+                }
+            };
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch stalledCompleted = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotDelayOthers() throws Exception {
+        emitters.add(new StalledEmitter());
+        RecordingEmitter reader = new RecordingEmitter();
+        emitters.add(reader);
+
+        service.subscribe();
+        service.subscribe();
+        assertThat(reader.events.poll(5, TimeUnit.SECONDS)).startsWith("event:ready");
+
+        service.publish(List.of(snapshot()));
+
+        assertThat(reader.events.poll(1, TimeUnit.SECONDS)).startsWith("event:inventory");
+    }
+
+    @Test
+    void droppedSubscriberKeepsItsSlotUntilItsWriteReturns() throws Exception {
+        emitters.add(new StalledEmitter());
+        service.subscribe();
+        Thread.sleep(SEND_TIMEOUT_MS * 3);
+
+        service.dropStalledSubscribers();
+
+        assertThat(service.getSubscriberCount()).isZero();
+        emitters.add(new RecordingEmitter());
+        service.subscribe();
+        // The stalled drain still holds its thread, so its slot stays taken
+        assertThatThrownBy(service::subscribe).isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        assertThat(stalledCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        RecordingEmitter next = new RecordingEmitter();
+        emitters.add(next);
+        awaitSubscribed();
+        assertThat(next.events.poll(5, TimeUnit.SECONDS)).startsWith("event:ready");
+    }
+
+    /**
+     * The slot is given back just after the stream completes, on the drain thread.
+     */
+    private void awaitSubscribed() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                service.subscribe();
+                return;
+            } catch (ServiceUnavailableException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static ThreadPoolTaskExecutor executor() {
+        // As InventoryStreamExecutorConfig: a thread per subscriber plus the core ones, no queue
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(MAX_SUBSCRIBERS + 1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("stream-test-");
+        executor.initialize();
+        return executor;
+    }
+
+    private static InventorySnapshot snapshot() {
+        return InventorySnapshot.of(Inventory.builder()
+                .inventoryId(1L)
+                .product(Product.builder().productId(1L).sku("SKU-1").name("Product 1").build())
+                .location("A")
+                .quantityOnHand(BigDecimal.TEN)
+                .build());
+    }
+
+    /**
+     * A client that never reads: every write blocks until the test releases it.
+     */
+    private class StalledEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            stalledCompleted.countDown();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(String.valueOf(builder.build().iterator().next().getData()));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.MySqlIntegrationTest;
+import com.example.cashewcorner.dto.CursorPageDto;
+import com.example.cashewcorner.entity.Customer;
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.entity.PurchaseOrder;
+import com.example.cashewcorner.entity.PurchaseOrderItem;
+import com.example.cashewcorner.entity.SalesOrder;
+import com.example.cashewcorner.entity.SalesOrderItem;
+import com.example.cashewcorner.entity.Supplier;
+import com.example.cashewcorner.repository.CustomerRepository;
+import com.example.cashewcorner.repository.ProductRepository;
+import com.example.cashewcorner.repository.PurchaseOrderRepository;
+import com.example.cashewcorner.repository.SalesOrderRepository;
+import com.example.cashewcorner.repository.SupplierRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing orders must cost the same number of statements whatever the page size:
+ * orders with their customer/supplier in one query, then items and their products
+ * in batches, never one select per order or per line.
+ */
+class OrderListingQueryCountTest extends MySqlIntegrationTest {
+
+    private static final int ORDERS = 60;
+    private static final int PRODUCTS_PER_ORDER = 3;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void salesOrderPageRunsConstantNumberOfStatements() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Product> products = createProducts(run);
+        for (int i = 0; i < ORDERS; i++) {
+            // A customer per order, so customers can't be served from one cached entity
+            Customer customer = customerRepository.save(Customer.builder().name("Customer " + run + "-" + i).build());
+            SalesOrder order = SalesOrder.builder()
+                    .soNumber("SO-" + run + "-" + i)
+                    .customer(customer)
+                    .orderDate(LocalDate.now())
+                    .build();
+            for (Product product : products) {
+                order.getItems().add(SalesOrderItem.builder()
+                        .salesOrder(order)
+                        .product(product)
+                        .quantity(BigDecimal.ONE)
+                        .unitPrice(BigDecimal.TEN)
+                        .build());
+            }
+            salesOrderRepository.save(order);
+        }
+
+        IntFunction<CursorPageDto<?>> listing = size -> salesOrderService.getSalesOrdersPage(null, size);
+        long small = countStatements(listing, 5);
+        long large = countStatements(listing, ORDERS);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void purchaseOrderPageRunsConstantNumberOfStatements() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Product> products = createProducts(run);
+        for (int i = 0; i < ORDERS; i++) {
+            Supplier supplier = supplierRepository.save(
+                    Supplier.builder().name("Supplier " + run + "-" + i).build());
+            PurchaseOrder order = PurchaseOrder.builder()
+                    .poNumber("PO-" + run + "-" + i)
+                    .supplier(supplier)
+                    .orderDate(LocalDate.now())
+                    .build();
+            for (Product product : products) {
+                order.getItems().add(PurchaseOrderItem.builder()
+                        .purchaseOrder(order)
+                        .product(product)
+                        .quantity(BigDecimal.ONE)
+                        .unitPrice(BigDecimal.TEN)
+                        .build());
+            }
+            purchaseOrderRepository.save(order);
+        }
+
+        IntFunction<CursorPageDto<?>> listing = size -> purchaseOrderService.getPurchaseOrdersPage(null, size);
+        long small = countStatements(listing, 5);
+        long large = countStatements(listing, ORDERS);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(4);
+    }
+
+    private List<Product> createProducts(String run) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS_PER_ORDER; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .sku("QC-" + run + "-" + i)
+                    .name("Query count product " + run + "-" + i)
+                    .build()));
+        }
+        return products;
+    }
+
+    private long countStatements(IntFunction<CursorPageDto<?>> listing, int pageSize) {
+        statistics.clear();
+        CursorPageDto<?> page = listing.apply(pageSize);
+        assertThat(page.getItems()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+}
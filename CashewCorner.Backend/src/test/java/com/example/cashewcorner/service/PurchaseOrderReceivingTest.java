@@ -0,0 +1,151 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.MySqlIntegrationTest;
+import com.example.cashewcorner.dto.CreatePurchaseOrderRequestDto;
+import com.example.cashewcorner.dto.PurchaseOrderDto;
+import com.example.cashewcorner.dto.PurchaseOrderItemDto;
+import com.example.cashewcorner.dto.PurchaseOrderItemRequestDto;
+import com.example.cashewcorner.dto.ReceivePurchaseOrderLineDto;
+import com.example.cashewcorner.dto.ReceivePurchaseOrderRequestDto;
+import com.example.cashewcorner.dto.ReceiveStockRequestDto;
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * A multi-line delivery against a purchase order: lines for the same product and location
+ * are applied to one inventory row, each line gets its own RECEIVE movement with the
+ * balance running in line order, and the order stays partially received until every
+ * item has arrived.
+ */
+class PurchaseOrderReceivingTest extends MySqlIntegrationTest {
+
+    private static final String LOCATION = "Receiving Test Dock";
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void multiLineDeliveryUpdatesItemsStatusAndRunningBalance() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        // Created first so its row sorts ahead of the kernels' row although its line comes second
+        Long shells = createProduct("RC-S-" + run);
+        Long kernels = createProduct("RC-K-" + run);
+        inventoryService.receiveStock(ReceiveStockRequestDto.builder()
+                .productId(kernels)
+                .location(LOCATION)
+                .quantity(new BigDecimal("100"))
+                .build());
+
+        PurchaseOrderDto order = purchaseOrderService.createPurchaseOrder(CreatePurchaseOrderRequestDto.builder()
+                .supplierId(1L)
+                .orderDate(LocalDate.now())
+                .items(List.of(item(kernels, "10"), item(shells, "5")))
+                .build());
+        Long kernelItem = itemsByProduct(order).get(kernels).getPurchaseOrderItemId();
+        Long shellItem = itemsByProduct(order).get(shells).getPurchaseOrderItemId();
+
+        PurchaseOrderDto partial = purchaseOrderService.receivePurchaseOrder(order.getPurchaseOrderId(),
+                ReceivePurchaseOrderRequestDto.builder()
+                        .location(LOCATION)
+                        .lines(List.of(
+                                line(kernelItem, "4", null),
+                                line(shellItem, "5", null),
+                                // Same row as the first line; locations match case-insensitively
+                                line(kernelItem, "3", LOCATION.toUpperCase())))
+                        .build());
+
+        assertThat(partial.getStatus()).isEqualTo("partially_received");
+        assertThat(itemsByProduct(partial).get(kernels).getReceivedQuantity()).isEqualByComparingTo("7");
+        assertThat(itemsByProduct(partial).get(shells).getReceivedQuantity()).isEqualByComparingTo("5");
+        assertThat(movements(order.getPurchaseOrderId()))
+                .extracting(m -> m.get("product_id"), m -> balance(m))
+                .containsExactly(
+                        tuple(kernels, "104"),
+                        tuple(shells, "5"),
+                        tuple(kernels, "107"));
+        assertThat(onHand(kernels)).isEqualByComparingTo("107");
+        assertThat(onHand(shells)).isEqualByComparingTo("5");
+
+        PurchaseOrderDto complete = purchaseOrderService.receivePurchaseOrder(order.getPurchaseOrderId(),
+                ReceivePurchaseOrderRequestDto.builder()
+                        .location(LOCATION)
+                        .lines(List.of(line(kernelItem, "3", null)))
+                        .build());
+
+        assertThat(complete.getStatus()).isEqualTo("completed");
+        assertThat(itemsByProduct(complete).get(kernels).getReceivedQuantity()).isEqualByComparingTo("10");
+        assertThat(movements(order.getPurchaseOrderId())).hasSize(4)
+                .last()
+                .satisfies(m -> assertThat(balance(m)).isEqualTo("110"));
+        assertThat(onHand(kernels)).isEqualByComparingTo("110");
+    }
+
+    private Long createProduct(String sku) {
+        return productRepository.save(Product.builder()
+                .sku(sku)
+                .name("Receiving test product " + sku)
+                .build()).getProductId();
+    }
+
+    private static PurchaseOrderItemRequestDto item(Long productId, String quantity) {
+        return PurchaseOrderItemRequestDto.builder()
+                .productId(productId)
+                .quantity(new BigDecimal(quantity))
+                .unitPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private static ReceivePurchaseOrderLineDto line(Long itemId, String quantity, String location) {
+        return ReceivePurchaseOrderLineDto.builder()
+                .purchaseOrderItemId(itemId)
+                .quantity(new BigDecimal(quantity))
+                .location(location)
+                .build();
+    }
+
+    private static Map<Long, PurchaseOrderItemDto> itemsByProduct(PurchaseOrderDto order) {
+        return order.getItems().stream()
+                .collect(Collectors.toMap(PurchaseOrderItemDto::getProductId, Function.identity()));
+    }
+
+    private List<Map<String, Object>> movements(Long purchaseOrderId) {
+        // Movement ids are handed out in save order, which is line order
+        return jdbcTemplate.queryForList(
+                "SELECT product_id, balance_after FROM stock_movements " +
+                "WHERE movement_type = 'RECEIVE' AND related_type = 'PURCHASE_ORDER' AND related_id = ? " +
+                "ORDER BY movement_id", purchaseOrderId);
+    }
+
+    private static String balance(Map<String, Object> movement) {
+        return ((BigDecimal) movement.get("balance_after")).stripTrailingZeros().toPlainString();
+    }
+
+    private BigDecimal onHand(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT quantity_on_hand FROM inventory WHERE product_id = ? AND location = ?",
+                BigDecimal.class, productId, LOCATION);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.MySqlIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archiving in batches smaller than the backlog must move every expired movement, and only
+ * those, leaving each row in exactly one of the two tables with its columns intact.
+ */
+class StockMovementArchiveServiceTest extends MySqlIntegrationTest {
+
+    // Clear of the ids AUTO_INCREMENT hands out
+    private static final long FIRST_ID = 900_000_000L;
+    // Far enough back that only the movements seeded here are older than the cutoff
+    private static final int RETENTION_DAYS = 20 * 365;
+    private static final int OLD_MOVEMENTS = 5;
+    private static final int RECENT_MOVEMENTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeMovements() {
+        jdbcTemplate.update("DELETE FROM stock_movements WHERE movement_id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM stock_movements_archive WHERE movement_id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void archivesEachExpiredMovementOnceAcrossBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> oldIds = new ArrayList<>();
+        List<Long> recentIds = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < OLD_MOVEMENTS + RECENT_MOVEMENTS; i++) {
+            long id = FIRST_ID + i;
+            boolean old = i < OLD_MOVEMENTS;
+            // Pairs of old movements share a date, so batches also split on the id tie-break
+            LocalDateTime date = old
+                    ? now.minusDays(RETENTION_DAYS + 100 - i / 2)
+                    : now.minusDays(RETENTION_DAYS - 100 + i);
+            (old ? oldIds : recentIds).add(id);
+            rows.add(new Object[]{id, BigDecimal.valueOf(i + 1), Timestamp.valueOf(date), "seed " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (movement_id, product_id, movement_type, quantity, " +
+                "balance_after, movement_date, notes) VALUES (?, 1, 'RECEIVE', ?, 0, ?, ?)", rows);
+
+        StockMovementArchiveService service =
+                new StockMovementArchiveService(jdbcTemplate, transactionManager, RETENTION_DAYS, 2);
+
+        assertThat(service.archiveOldMovements()).isEqualTo(OLD_MOVEMENTS);
+
+        assertThat(ids("stock_movements")).containsExactlyElementsOf(recentIds);
+        assertThat(ids("stock_movements_archive")).containsExactlyElementsOf(oldIds);
+        Map<String, Object> archived = jdbcTemplate.queryForMap(
+                "SELECT product_id, movement_type, quantity, notes FROM stock_movements_archive WHERE movement_id = ?",
+                FIRST_ID);
+        assertThat(archived.get("product_id")).isEqualTo(1L);
+        assertThat(archived.get("movement_type")).isEqualTo("RECEIVE");
+        assertThat((BigDecimal) archived.get("quantity")).isEqualByComparingTo("1");
+        assertThat(archived.get("notes")).isEqualTo("seed 0");
+
+        // Nothing left to move
+        assertThat(service.archiveOldMovements()).isZero();
+    }
+
+    private List<Long> ids(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT movement_id FROM " + table + " WHERE movement_id >= ? ORDER BY movement_id", Long.class, FIRST_ID);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.cashewcorner.service;
+
+import com.example.cashewcorner.MySqlIntegrationTest;
+import com.example.cashewcorner.dto.CreateSalesOrderRequestDto;
+import com.example.cashewcorner.dto.ReceiveStockRequestDto;
+import com.example.cashewcorner.dto.SalesOrderBatchEntryDto;
+import com.example.cashewcorner.dto.SalesOrderItemRequestDto;
+import com.example.cashewcorner.entity.Product;
+import com.example.cashewcorner.exception.ConflictException;
+import com.example.cashewcorner.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent single and batch orders for one SKU, cancelled or delivered as they go,
+ * must never reserve more than is on hand, never sell stock that isn't there, and leave
+ * nothing reserved once every order is closed.
+ */
+class StockReservationConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS_PER_THREAD = 12;
+    private static final int BATCH_SIZE = 3;
+    private static final BigDecimal ORDER_QUANTITY = new BigDecimal("2");
+    private static final Map<String, BigDecimal> OPENING_STOCK = Map.of(
+            "Reservation Test North", new BigDecimal("20"),
+            "Reservation Test South", new BigDecimal("30"));
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReserveCancelAndDeliverNeverOversell() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Long productId = productRepository.save(Product.builder()
+                .sku("RS-" + run)
+                .name("Reservation test product " + run)
+                .build()).getProductId();
+        OPENING_STOCK.forEach((location, quantity) -> inventoryService.receiveStock(ReceiveStockRequestDto.builder()
+                .productId(productId)
+                .location(location)
+                .quantity(quantity)
+                .build()));
+        BigDecimal opening = OPENING_STOCK.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(() -> {
+                start.await();
+                int delivered = 0;
+                for (int round = 0; round < ROUNDS_PER_THREAD; round++) {
+                    List<Long> orderIds = round % 2 == 0
+                            ? createOne(productId)
+                            : createBatch(productId);
+                    for (int i = 0; i < orderIds.size(); i++) {
+                        // Deliver about half and cancel the rest, so stock is both consumed and handed back
+                        boolean deliver = (thread + round + i) % 2 == 0;
+                        salesOrderService.updateSalesOrderStatus(orderIds.get(i), deliver ? "delivered" : "cancelled");
+                        if (deliver) {
+                            delivered++;
+                        }
+                    }
+                }
+                return delivered;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        int delivered = 0;
+        try {
+            Future<?> sampler = pool.submit(() -> {
+                while (running.get()) {
+                    checkRows(productId, violations);
+                }
+            });
+            List<Future<Integer>> results = new ArrayList<>();
+            workers.forEach(worker -> results.add(pool.submit(worker)));
+            start.countDown();
+            for (Future<Integer> result : results) {
+                delivered += result.get(2, TimeUnit.MINUTES);
+            }
+            running.set(false);
+            sampler.get(1, TimeUnit.MINUTES);
+        } finally {
+            running.set(false);
+            pool.shutdownNow();
+        }
+
+        checkRows(productId, violations);
+        assertThat(violations).isEmpty();
+
+        BigDecimal sold = ORDER_QUANTITY.multiply(BigDecimal.valueOf(delivered));
+        assertThat(sold).isLessThanOrEqualTo(opening);
+        assertThat(delivered).as("some orders should get through").isPositive();
+
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT SUM(quantity_on_hand) AS onHand, SUM(reserved_quantity) AS reserved " +
+                "FROM inventory WHERE product_id = ?", productId);
+        assertThat((BigDecimal) totals.get("onHand")).isEqualByComparingTo(opening.subtract(sold));
+        assertThat((BigDecimal) totals.get("reserved")).isEqualByComparingTo(BigDecimal.ZERO);
+
+        BigDecimal saleMovements = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM stock_movements WHERE product_id = ? AND movement_type = 'SALE'",
+                BigDecimal.class, productId);
+        assertThat(saleMovements).isEqualByComparingTo(sold);
+
+        Integer openReservations = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservations WHERE product_id = ? AND status = 'RESERVED'",
+                Integer.class, productId);
+        assertThat(openReservations).isZero();
+    }
+
+    private List<Long> createOne(Long productId) {
+        try {
+            return List.of(salesOrderService.createSalesOrder(orderRequest(productId)).getSalesOrderId());
+        } catch (ConflictException e) {
+            // Out of stock for now; the order was rolled back
+            return List.of();
+        }
+    }
+
+    private List<Long> createBatch(Long productId) {
+        List<CreateSalesOrderRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requests.add(orderRequest(productId));
+        }
+        return salesOrderService.createSalesOrdersBatch(requests).getResults().stream()
+                .filter(SalesOrderBatchEntryDto::getSuccess)
+                .map(SalesOrderBatchEntryDto::getSalesOrderId)
+                .toList();
+    }
+
+    private static CreateSalesOrderRequestDto orderRequest(Long productId) {
+        return CreateSalesOrderRequestDto.builder()
+                .customerId(1L)
+                .orderDate(LocalDate.now())
+                .items(List.of(SalesOrderItemRequestDto.builder()
+                        .productId(productId)
+                        .quantity(ORDER_QUANTITY)
+                        .unitPrice(BigDecimal.TEN)
+                        .build()))
+                .build();
+    }
+
+    private void checkRows(Long productId, ConcurrentLinkedQueue<String> violations) {
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT location, quantity_on_hand, reserved_quantity FROM inventory WHERE product_id = ?", productId)) {
+            BigDecimal onHand = (BigDecimal) row.get("quantity_on_hand");
+            BigDecimal reserved = (BigDecimal) row.get("reserved_quantity");
+            if (onHand.signum() < 0 || reserved.signum() < 0 || reserved.compareTo(onHand) > 0) {
+                violations.add(row.get("location") + ": onHand=" + onHand + ", reserved=" + reserved);
+            }
+        }
+    }
+}